@@ -1,20 +1,45 @@
 package de.uni_passau.fim.se2.se.test_prioritisation;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.algorithms.ImprovementStrategy;
+import de.uni_passau.fim.se2.se.test_prioritisation.algorithms.MigrationTopology;
 import de.uni_passau.fim.se2.se.test_prioritisation.algorithms.SearchAlgorithm;
 import de.uni_passau.fim.se2.se.test_prioritisation.algorithms.SearchAlgorithmType;
+import de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules.CoolingScheduleType;
+import de.uni_passau.fim.se2.se.test_prioritisation.crossover.CrossoverType;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
 import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.APLC;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.CoverageMatrix;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.TraceFormat;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.TraceRecorder;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.AllOf;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.AnyOf;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.MaxTime;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.SharedBudget;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.Stagnation;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.TargetFitness;
 import de.uni_passau.fim.se2.se.test_prioritisation.utils.AlgorithmBuilder;
 import de.uni_passau.fim.se2.se.test_prioritisation.utils.CoverageTracker;
 import de.uni_passau.fim.se2.se.test_prioritisation.utils.Randomness;
 import de.uni_passau.fim.se2.se.test_prioritisation.utils.Utils;
 import picocli.CommandLine;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator.SplittableGenerator;
 import java.util.stream.DoubleStream;
 
 /***
@@ -22,6 +47,11 @@ import java.util.stream.DoubleStream;
  */
 public class Main implements Callable<Integer> {
 
+    /**
+     * The number of fitness evaluations a repetition reserves at once from a shared budget.
+     */
+    private static final int SHARED_BUDGET_SLACK = 64;
+
     @CommandLine.Option(
             names = {"-c", "--class"},
             description = "The name of the class under test.",
@@ -36,21 +66,162 @@ public class Main implements Callable<Integer> {
 
     @CommandLine.Option(
             names = {"-f", "--max-fitness-evaluations"},
-            description = "The maximum number of fitness evaluations per repetition.",
+            description = "The maximum number of fitness evaluations per repetition (0 disables the limit).",
             defaultValue = "1000")
     private int maxFitnessEvaluations;
 
+    @CommandLine.Option(
+            names = {"--max-time"},
+            description = "The maximum wall-clock time per repetition in seconds (0 disables the limit).",
+            defaultValue = "0")
+    private double maxTime;
+
+    @CommandLine.Option(
+            names = {"--stagnation"},
+            description = "Stop a repetition after this many fitness evaluations without improvement (0 disables it).",
+            defaultValue = "0")
+    private int stagnation;
+
+    @CommandLine.Option(
+            names = {"--target-fitness"},
+            description = "Stop a repetition as soon as it finds a test order with at least this APLC.")
+    private Double targetFitness;
+
+    @CommandLine.Option(
+            names = {"--stop-when-all"},
+            description = "Stop a repetition only when all given stopping conditions are met, instead of any of them.")
+    private boolean stopWhenAll;
+
+    @CommandLine.Option(
+            names = {"--share-budget"},
+            description = "Let the concurrent repetitions of an algorithm draw from one budget of fitness evaluations, "
+                    + "so repetitions that stop early leave their evaluations to the others.")
+    private boolean shareBudget;
+
     @CommandLine.Option(
             names = {"-r", "--repetitions"},
             description = "The number of search repetitions to perform.",
             defaultValue = "30")
     private int repetitions;
 
+    @CommandLine.Option(
+            names = {"--cache-size"},
+            description = "The number of test orders whose fitness is memoised (0 disables the cache).",
+            defaultValue = "0")
+    private int cacheSize;
+
+    @CommandLine.Option(
+            names = {"--free-cache-hits"},
+            description = "Do not count fitness evaluations answered from the cache towards the budget.")
+    private boolean freeCacheHits;
+
+    @CommandLine.Option(
+            names = {"--evaluation-threads"},
+            description = "The number of threads evaluating populations (0 uses the common pool).",
+            defaultValue = "0")
+    private int evaluationThreads;
+
+    @CommandLine.Option(
+            names = {"-t", "--threads"},
+            description = "The number of repetitions to run concurrently.",
+            defaultValue = "1")
+    private int threads;
+
+    @CommandLine.Option(
+            names = {"--islands"},
+            description = "The number of islands of the island model genetic algorithm.",
+            defaultValue = "4")
+    private int islands;
+
+    @CommandLine.Option(
+            names = {"--migration-interval"},
+            description = "The number of generations between two migrations of the island model genetic algorithm.",
+            defaultValue = "10")
+    private int migrationInterval;
+
+    @CommandLine.Option(
+            names = {"--migrants"},
+            description = "The number of individuals every island sends per migration.",
+            defaultValue = "2")
+    private int migrants;
+
+    @CommandLine.Option(
+            names = {"--topology"},
+            description = "Where islands send their migrants to: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "RING")
+    private MigrationTopology topology;
+
+    @CommandLine.Option(
+            names = {"-x", "--crossover"},
+            description = "The crossover operator of the genetic algorithms: OX, PMX, CX or ERX.",
+            defaultValue = "OX",
+            converter = CrossoverConverter.class)
+    private CrossoverType crossover;
+
+    @CommandLine.Option(
+            names = {"--improvement"},
+            description = "Which improving neighbour the hill climber moves to: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "FIRST_IMPROVEMENT")
+    private ImprovementStrategy improvement;
+
+    @CommandLine.Option(
+            names = {"--cooling"},
+            description = "The cooling schedule of simulated annealing: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "GEOMETRIC")
+    private CoolingScheduleType coolingSchedule;
+
+    @CommandLine.Option(
+            names = {"--initial-temperature"},
+            description = "The initial temperature of simulated annealing (0 calibrates it from sampled neighbours).",
+            defaultValue = "0")
+    private double initialTemperature;
+
+    @CommandLine.Option(
+            names = {"--replicas"},
+            description = "The number of replicas of parallel tempering.",
+            defaultValue = "4")
+    private int replicas;
+
+    @CommandLine.Option(
+            names = {"--min-temperature"},
+            description = "The temperature of the coldest replica of parallel tempering.",
+            defaultValue = "0.0001")
+    private double minTemperature;
+
+    @CommandLine.Option(
+            names = {"--max-temperature"},
+            description = "The temperature of the hottest replica of parallel tempering.",
+            defaultValue = "0.01")
+    private double maxTemperature;
+
+    @CommandLine.Option(
+            names = {"--exchange-interval"},
+            description = "The number of steps every replica of parallel tempering performs between two exchanges.",
+            defaultValue = "100")
+    private int exchangeInterval;
+
+    @CommandLine.Option(
+            names = {"--trace"},
+            description = "Record the course of every repetition to the given file.")
+    private Path traceFile;
+
+    @CommandLine.Option(
+            names = {"--trace-format"},
+            description = "The format of the trace file: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "CSV")
+    private TraceFormat traceFormat;
+
+    @CommandLine.Option(
+            names = {"--trace-sampling"},
+            description = "Record only every n-th fitness evaluation in the trace.",
+            defaultValue = "1")
+    private int traceSampling;
+
     @CommandLine.Option(
             names = {"-s", "--seed"},
             description = "Use a fixed RNG seed.")
     public void setSeed(int seed) {
-        Randomness.random().setSeed(seed);
+        Randomness.setSeed(seed);
     }
 
     @CommandLine.Parameters(
@@ -63,14 +234,15 @@ public class Main implements Callable<Integer> {
     /**
      * The names of the test cases (corresponding to the coverage matrix). That is, for and index
      * {@code i}, {@code testCases[i]} tells the name of the ith test case and
-     * {@code coverageMatrix[i]} tells which lines of code are covered by the ith test case.
+     * row {@code i} of the {@code coverageMatrix} tells which lines of code are covered by the ith
+     * test case.
      */
     private String[] testCases;
 
     /**
      * The coverage matrix for the analyzed software system.
      */
-    private boolean[][] coverageMatrix;
+    private CoverageMatrix coverageMatrix;
 
 
     public static void main(String[] args) {
@@ -84,6 +256,39 @@ public class Main implements Callable<Integer> {
      * @return The exit code of the application
      */
     public Integer call() {
+        if (threads < 1) {
+            System.err.println("The number of threads must be at least 1.");
+            return 1;
+        }
+        if (evaluationThreads < 0) {
+            System.err.println("The number of evaluation threads cannot be negative.");
+            return 1;
+        }
+        if (cacheSize < 0) {
+            System.err.println("The cache size cannot be negative.");
+            return 1;
+        }
+        if (maxFitnessEvaluations < 0 || maxTime < 0 || stagnation < 0) {
+            System.err.println("The limits of the stopping conditions cannot be negative.");
+            return 1;
+        }
+        if (maxFitnessEvaluations == 0 && maxTime == 0) {
+            System.err.println("Either the maximum number of fitness evaluations or the maximum time must be given.");
+            return 1;
+        }
+        if (shareBudget && maxFitnessEvaluations == 0) {
+            System.err.println("Sharing the budget requires a maximum number of fitness evaluations.");
+            return 1;
+        }
+        if (shareBudget && threads < repetitions) {
+            System.err.println("Sharing the budget requires running all repetitions concurrently.");
+            return 1;
+        }
+        if (traceSampling < 1) {
+            System.err.println("The trace sampling interval must be at least 1.");
+            return 1;
+        }
+
         try {
             setCoverageMatrixAndTestCaseNames();
         } catch (Exception e) {
@@ -91,7 +296,13 @@ public class Main implements Callable<Integer> {
             return 1;
         }
 
-        Map<SearchAlgorithmType, double[]> results = performSearch();
+        final Map<SearchAlgorithmType, double[]> results;
+        try (TraceRecorder recorder = traceFile == null ? null : new TraceRecorder(traceFile, traceFormat, traceSampling)) {
+            results = performSearch(recorder);
+        } catch (IOException e) {
+            System.err.println("Error while writing the search trace.");
+            return 1;
+        }
         printSummary(results);
         return 0;
     }
@@ -100,18 +311,29 @@ public class Main implements Callable<Integer> {
      * Performs the search, returning a mapping from executed search algorithms to the
      * corresponding results found by the algorithms.
      *
+     * @param recorder the recorder to trace the repetitions with, or {@code null} to disable tracing
      * @return search results
      */
-    private Map<SearchAlgorithmType, double[]> performSearch() {
-        final Random random = Randomness.random();
+    private Map<SearchAlgorithmType, double[]> performSearch(final TraceRecorder recorder) {
+        final SplittableGenerator random = Randomness.random();
         final Map<SearchAlgorithmType, double[]> results = new LinkedHashMap<>();
+        final ForkJoinPool pool = evaluationThreads == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(evaluationThreads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Prepared once, as the algorithms and their repetitions all share it.
+        final APLC aplc = new APLC(coverageMatrix, pool);
 
-        for (final var algorithm : algorithms) {
-            System.out.println(" * Executing " + algorithm.name());
+        try {
+            for (final var algorithm : algorithms) {
+                System.out.println(" * Executing " + algorithm.name());
 
-            final SearchAlgorithm<?> searchAlgorithm = AlgorithmBuilder.build(algorithm, maxFitnessEvaluations, coverageMatrix, random);
-            final double[] solutions = repeatSearch(searchAlgorithm);
-            results.put(algorithm, solutions);
+                final double[] solutions = repeatSearch(algorithm, random, aplc, pool, executor, recorder);
+                results.put(algorithm, solutions);
+            }
+        } finally {
+            executor.shutdownNow();
+            if (pool != ForkJoinPool.commonPool()) {
+                pool.shutdownNow();
+            }
         }
 
         return results;
@@ -122,33 +344,145 @@ public class Main implements Callable<Integer> {
      * the command line, or corresponds to the default value if nothing was specified. Returns an
      * array of the resulting APLC values. The array contains one entry for every repetition.
      * Every entry is the best APLC value of its repetition.
+     * <p>
+     * The repetitions are independent of each other: every repetition builds its own instance of
+     * the search algorithm, with its own stopping condition and its own stream of randomness split
+     * off the given one. The streams are split before any repetition starts, so the repetitions can run
+     * concurrently in the given executor, and their results are reported in order, just as if they
+     * had run one after another. Likewise, the traces of the repetitions are opened in order.
+     * <p>
+     * If the budget is shared, the repetitions draw from one budget of {@code repetitions} times
+     * the maximum number of fitness evaluations instead, which makes them depend on each other:
+     * how the budget is split among them depends on the scheduling of the threads. Their stopping
+     * conditions are built before any of them starts, so each of them gets a share.
      *
-     * @param search the search algorithm to run
+     * @param algorithm the search algorithm to run
+     * @param random    the source of randomness to split the streams of the repetitions off
+     * @param aplc      the fitness function to search with and to score the solutions by
+     * @param pool      the pool to run islands and replicas in
+     * @param executor  the executor to run the repetitions in
+     * @param recorder  the recorder to trace the repetitions with, or {@code null} to disable tracing
      * @return an array of APLC values representing the search results over the specified number of repetitions
      */
-    private double[] repeatSearch(final SearchAlgorithm<?> search) {
+    private double[] repeatSearch(final SearchAlgorithmType algorithm, final SplittableGenerator random, final APLC aplc,
+                                  final ForkJoinPool pool, final ExecutorService executor, final TraceRecorder recorder) {
         final var aplcValues = new double[repetitions];
-        APLC fitnessFunction = new APLC(coverageMatrix.clone());
+        final var settings = AlgorithmBuilder.Settings.DEFAULT
+                .withCache(cacheSize, !freeCacheHits)
+                .withPool(pool)
+                .withIslandModel(new AlgorithmBuilder.IslandModel(islands, migrationInterval, migrants, topology))
+                .withCrossover(crossover)
+                .withImprovement(improvement)
+                .withAnnealingModel(new AlgorithmBuilder.AnnealingModel(coolingSchedule, initialTemperature))
+                .withTemperingModel(new AlgorithmBuilder.TemperingModel(replicas, minTemperature, maxTemperature,
+                        exchangeInterval));
 
+        final SharedBudget sharedBudget = shareBudget
+                ? new SharedBudget((long) repetitions * maxFitnessEvaluations,
+                        Math.min(SHARED_BUDGET_SLACK, maxFitnessEvaluations))
+                : null;
+        // Built before any repetition starts, so that each of them reserves its share of a shared budget.
+        final StoppingCondition[] stoppingConditions = new StoppingCondition[repetitions];
         for (int i = 0; i < repetitions; i++) {
-            System.out.println("   > Repetition " + i);
+            stoppingConditions[i] = buildStoppingCondition(sharedBudget);
+        }
 
-            final long start = System.currentTimeMillis();
-            final var solution = search.findSolution();
-            final long totalTime = System.currentTimeMillis() - start;
+        final List<Future<Repetition>> futures = new ArrayList<>(repetitions);
+        for (int i = 0; i < repetitions; i++) {
+            final SplittableGenerator repetitionRandom = random.split();
+            final SearchTrace trace = recorder == null ? SearchTrace.DISABLED : recorder.open(algorithm.name() + "#" + i);
+            final StoppingCondition stoppingCondition = stoppingConditions[i];
+            futures.add(executor.submit(() -> {
+                final SearchAlgorithm<TestOrder> search = AlgorithmBuilder.build(algorithm, stoppingCondition, aplc,
+                        repetitionRandom, settings.withTrace(trace));
+
+                final long start = System.currentTimeMillis();
+                final TestOrder solution;
+                try (trace) {
+                    solution = search.findSolution();
+                }
+                final long totalTime = System.currentTimeMillis() - start;
+
+                return new Repetition(solution, aplc.applyAsDouble(solution), totalTime);
+            }));
+        }
 
-            final double aplcValue = fitnessFunction.applyAsDouble((TestOrder) solution);
-            aplcValues[i] = aplcValue;
+        for (int i = 0; i < repetitions; i++) {
+            final Repetition repetition = await(futures.get(i));
+            aplcValues[i] = repetition.aplc();
 
-            final String testCaseOrder = Utils.getTestCaseOrder(testCases, (TestOrder) solution);
+            final String testCaseOrder = Utils.getTestCaseOrder(testCases, repetition.solution());
+            System.out.println("   > Repetition " + i);
             System.out.println("      - Ordering: " + testCaseOrder);
-            System.out.println("      - APLC: " + aplcValue);
-            System.out.printf("      - Time: %fs%n", totalTime / 1000d);
+            System.out.println("      - APLC: " + repetition.aplc());
+            System.out.printf("      - Time: %fs%n", repetition.totalTime() / 1000d);
         }
 
         return aplcValues;
     }
 
+    /**
+     * Builds the stopping condition of a single repetition from the limits given on the command
+     * line. If several limits are given, the repetition stops as soon as any of them is met, or
+     * only once all of them are met if requested.
+     *
+     * @param sharedBudget the budget the repetition draws its fitness evaluations from, or
+     *                     {@code null} if it has a budget of its own
+     * @return the stopping condition
+     */
+    private StoppingCondition buildStoppingCondition(final SharedBudget sharedBudget) {
+        final List<StoppingCondition> conditions = new ArrayList<>();
+        if (sharedBudget != null) {
+            conditions.add(sharedBudget.newCondition());
+        } else if (maxFitnessEvaluations > 0) {
+            conditions.add(new MaxFitnessEvaluations(maxFitnessEvaluations));
+        }
+        if (maxTime > 0) {
+            conditions.add(new MaxTime(Duration.ofNanos((long) (maxTime * 1e9))));
+        }
+        if (stagnation > 0) {
+            conditions.add(new Stagnation(stagnation));
+        }
+        if (targetFitness != null) {
+            conditions.add(new TargetFitness(targetFitness));
+        }
+
+        if (conditions.size() == 1) {
+            return conditions.get(0);
+        }
+        return stopWhenAll ? new AllOf(conditions) : new AnyOf(conditions);
+    }
+
+    /**
+     * Waits for the given repetition to finish.
+     *
+     * @param repetition the running repetition
+     * @return the result of the repetition
+     */
+    private static Repetition await(final Future<Repetition> repetition) {
+        try {
+            return repetition.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a repetition", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The result of a single repetition of a search.
+     *
+     * @param solution  the best test order found
+     * @param aplc      the APLC of the best test order
+     * @param totalTime the duration of the search in milliseconds
+     */
+    private record Repetition(TestOrder solution, double aplc, long totalTime) {
+    }
+
     /**
      * Initializes the coverage matrix and the test case names.
      *
@@ -193,7 +527,27 @@ class AlgorithmConverter implements CommandLine.ITypeConverter<SearchAlgorithmTy
             case "RW" -> SearchAlgorithmType.RANDOM_WALK;
             case "SA" -> SearchAlgorithmType.SIMULATED_ANNEALING;
             case "GA" -> SearchAlgorithmType.SIMPLE_GENETIC_ALGORITHM;
+            case "IGA" -> SearchAlgorithmType.ISLAND_GENETIC_ALGORITHM;
+            case "HC" -> SearchAlgorithmType.HILL_CLIMBING;
+            case "PT" -> SearchAlgorithmType.PARALLEL_TEMPERING;
             default -> throw new IllegalArgumentException("The algorithm '" + algorithm + "' is not a valid option.");
         };
     }
-}
\ No newline at end of file
+}
+
+
+/**
+ * Converts supplied cli parameters to the respective {@link CrossoverType}.
+ */
+class CrossoverConverter implements CommandLine.ITypeConverter<CrossoverType> {
+    @Override
+    public CrossoverType convert(String crossover) {
+        return switch (crossover.toUpperCase()) {
+            case "OX" -> CrossoverType.ORDER;
+            case "PMX" -> CrossoverType.PARTIALLY_MAPPED;
+            case "CX" -> CrossoverType.CYCLE;
+            case "ERX" -> CrossoverType.EDGE_RECOMBINATION;
+            default -> throw new IllegalArgumentException("The crossover '" + crossover + "' is not a valid option.");
+        };
+    }
+}
@@ -0,0 +1,235 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.EncodingGenerator;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.APLCNeighbourhood;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.APLCNeighbourhood.Move;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.APLCNeighbourhood.MoveConsumer;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
+
+/**
+ * Implements a hill climber with random restarts that explores the full insertion and swap
+ * neighbourhood of a test order.
+ * <p>
+ * Starting from a random test order, the climber repeatedly moves to an improving neighbour,
+ * either the best one or the first one found (see {@link ImprovementStrategy}), until no neighbour
+ * improves the APLC. It then restarts from a new random test order, and returns the best local
+ * optimum found once the budget is exhausted.
+ * <p>
+ * The neighbours are evaluated incrementally by an {@link APLCNeighbourhood} rather than by the
+ * fitness function. Every evaluated move counts as a fitness evaluation; moves that provably do
+ * not change the fitness, such as rearranging the tests after the prefix that already reaches
+ * full coverage, are skipped without being counted.
+ */
+public final class HillClimbing implements SearchAlgorithm<TestOrder> {
+    private final StoppingCondition stoppingCondition;
+    private final EncodingGenerator<TestOrder> encodingGenerator;
+    private final APLCNeighbourhood neighbourhood;
+    private final ImprovementStrategy strategy;
+    private final SearchTrace trace;
+    private final ImprovementListener<TestOrder> listener;
+
+    /**
+     * Receives the moves of the neighbourhood scan in progress.
+     */
+    private final MoveConsumer consumer = this::consider;
+
+    /**
+     * The most improving move of the neighbourhood scan in progress, and its delta, which is
+     * zero as long as no improving move was found.
+     */
+    private Move bestMove;
+    private int bestFrom;
+    private int bestTo;
+    private long bestDelta;
+
+    /**
+     * The random test order the current climb started from.
+     */
+    private TestOrder start;
+
+    /**
+     * The fitness of the best test order reached in the current search, including the current
+     * climb.
+     */
+    private double bestFitness;
+
+    /**
+     * Constructs a HillClimbing instance.
+     *
+     * @param stoppingCondition the condition determining when the search stops
+     * @param encodingGenerator the generator to produce the starting points of the climbs
+     * @param neighbourhood     the neighbourhood to evaluate the moves in, which must not be shared
+     * @param strategy          which improving neighbour to move to
+     * @param trace             the trace to report the evaluations to
+     * @param listener          the listener to report improvements to
+     */
+    public HillClimbing(
+            final StoppingCondition stoppingCondition,
+            final EncodingGenerator<TestOrder> encodingGenerator,
+            final APLCNeighbourhood neighbourhood,
+            final ImprovementStrategy strategy,
+            final SearchTrace trace,
+            final ImprovementListener<TestOrder> listener) {
+        if (stoppingCondition == null || encodingGenerator == null || neighbourhood == null || strategy == null
+                || trace == null || listener == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        this.stoppingCondition = stoppingCondition;
+        this.encodingGenerator = encodingGenerator;
+        this.neighbourhood = neighbourhood;
+        this.strategy = strategy;
+        this.trace = trace;
+        this.listener = listener;
+    }
+
+    /**
+     * Finds the best solution by climbing from random test orders to local optima.
+     *
+     * @return the best solution found
+     */
+    @Override
+    public TestOrder findSolution() {
+        TestOrder bestSolution = null;
+        long bestSum = Long.MAX_VALUE;
+        bestFitness = Double.NEGATIVE_INFINITY;
+
+        stoppingCondition.notifySearchStarted();
+
+        while (!stoppingCondition.searchMustStop()) {
+            start = encodingGenerator.get();
+            neighbourhood.reset(start.getPositions());
+            stoppingCondition.notifyFitnessEvaluation();
+            reached();
+            traceEvaluation();
+
+            switch (strategy) {
+                case STEEPEST_ASCENT -> climbSteepest();
+                case FIRST_IMPROVEMENT -> climbFirst();
+            }
+
+            // A lower sum of first-covering positions means a higher APLC.
+            if (neighbourhood.sum() < bestSum) {
+                bestSum = neighbourhood.sum();
+                bestSolution = TestOrder.trusted(start.getMutation(), neighbourhood.order());
+            }
+        }
+
+        return bestSolution;
+    }
+
+    /**
+     * Moves to the best neighbour until no neighbour is better or the budget is exhausted. If the
+     * budget runs out in the middle of a scan, the best move evaluated so far is still taken.
+     */
+    private void climbSteepest() {
+        final int size = neighbourhood.size();
+        while (true) {
+            bestDelta = 0;
+            int from = 0;
+            while (from < size && neighbourhood.scan(from, consumer)) {
+                from++;
+            }
+            if (bestDelta == 0) {
+                return;
+            }
+            applyBestMove();
+        }
+    }
+
+    /**
+     * Moves to the first improving neighbour until no neighbour is better or the budget is
+     * exhausted. The moves of every test are scanned in turn, starting over from the test whose
+     * move was taken last, so the climb has reached a local optimum once the moves of all tests
+     * have been scanned in a row without improvement.
+     */
+    private void climbFirst() {
+        final int size = neighbourhood.size();
+        int from = 0;
+        int unimproved = 0;
+        while (unimproved < size && !stoppingCondition.searchMustStop()) {
+            bestDelta = 0;
+            neighbourhood.scan(from, consumer);
+            if (bestDelta < 0) {
+                applyBestMove();
+                unimproved = 0;
+            } else {
+                unimproved++;
+                from = (from + 1) % size;
+            }
+        }
+    }
+
+    /**
+     * Applies the most improving move of the last scan to the current test order.
+     */
+    private void applyBestMove() {
+        final long expected = neighbourhood.sum() + bestDelta;
+        neighbourhood.apply(bestMove, bestFrom, bestTo);
+        assert neighbourhood.sum() == expected : "Incremental evaluation diverged";
+        reached();
+    }
+
+    /**
+     * Records the current test order as the best one of the search if it improves on all test
+     * orders reached before, and notifies the stopping condition and the listener about the
+     * improvement.
+     */
+    private void reached() {
+        final double fitness = neighbourhood.fitness();
+        if (fitness > bestFitness) {
+            bestFitness = fitness;
+            stoppingCondition.notifyImprovement(fitness);
+            if (listener != ImprovementListener.DISABLED) {
+                // Only copy the order if someone listens.
+                listener.improved(TestOrder.trusted(start.getMutation(), neighbourhood.order()), fitness);
+            }
+        }
+    }
+
+    /**
+     * Counts the evaluation of the given move and records it if it is the most improving one of
+     * the current scan.
+     *
+     * @param move  the kind of move
+     * @param from  the index of the moved test
+     * @param to    the target index of the move
+     * @param delta the change of the sum of first-covering positions caused by the move
+     * @return whether the scan should continue
+     */
+    private boolean consider(final Move move, final int from, final int to, final long delta) {
+        if (stoppingCondition.searchMustStop()) {
+            return false;
+        }
+        stoppingCondition.notifyFitnessEvaluation();
+        traceEvaluation();
+
+        if (delta < bestDelta) {
+            bestMove = move;
+            bestFrom = from;
+            bestTo = to;
+            bestDelta = delta;
+            return strategy == ImprovementStrategy.STEEPEST_ASCENT;
+        }
+        return true;
+    }
+
+    /**
+     * Reports an evaluation of the current test order to the trace.
+     */
+    private void traceEvaluation() {
+        trace.evaluated(neighbourhood.fitness(), bestFitness);
+    }
+
+    /**
+     * Returns the stopping condition for this search algorithm.
+     *
+     * @return the stopping condition
+     */
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return stoppingCondition;
+    }
+}
@@ -0,0 +1,17 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
+
+/**
+ * Enum specifying which improving neighbour a {@link HillClimbing} moves to.
+ */
+public enum ImprovementStrategy {
+
+    /**
+     * Scans the whole neighbourhood and moves to the best neighbour.
+     */
+    STEEPEST_ASCENT,
+
+    /**
+     * Moves to the first improving neighbour found, continuing the scan from there.
+     */
+    FIRST_IMPROVEMENT
+}
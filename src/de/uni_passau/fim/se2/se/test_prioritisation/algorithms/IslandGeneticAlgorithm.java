@@ -0,0 +1,358 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
+import de.uni_passau.fim.se2.se.test_prioritisation.crossover.Crossover;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Encoding;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.EncodingGenerator;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Individual;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.se.test_prioritisation.mutations.Mutation;
+import de.uni_passau.fim.se2.se.test_prioritisation.parent_selection.ParentSelection;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Implements an island model genetic algorithm. Several populations (islands) evolve
+ * independently like in a {@link SimpleGeneticAlgorithm}, and every few generations, the best
+ * individuals of every island migrate to another island, where they replace the worst ones. The
+ * islands rarely interact, so they can breed and evaluate their generations on separate threads,
+ * and they keep a higher diversity than a single population of the same total size.
+ * <p>
+ * The islands advance in lockstep: in every generation, all islands breed and evaluate their
+ * offspring in parallel. Afterwards, the search thread notifies the shared stopping condition of
+ * the evaluations island by island, discarding the individuals of the generation that exceed the
+ * budget, and performs the migration if it is due. Every island draws its random decisions from
+ * its own stream of randomness, which is split off the one of the algorithm. Thus, the result
+ * of a search is reproducible for a fixed seed, and the budget is respected exactly.
+ *
+ * @param <E> the type of encoding
+ */
+public final class IslandGeneticAlgorithm<E extends Encoding<E>> implements SearchAlgorithm<E> {
+
+    /**
+     * The operators an island breeds its population with. All of them must draw their random
+     * decisions from the source of randomness of the island they were created for.
+     *
+     * @param encodingGenerator the encoding generator used to create the initial population
+     * @param crossover         the crossover operator used to create offspring from parents
+     * @param mutation          the mutation applied to every offspring
+     * @param parentSelection   the parent selection operator used to select parents
+     * @param <E>               the type of encoding
+     */
+    public record Operators<E extends Encoding<E>>(
+            EncodingGenerator<E> encodingGenerator,
+            Crossover<E> crossover,
+            Mutation<E> mutation,
+            ParentSelection<E> parentSelection) {
+    }
+
+    private final StoppingCondition stoppingCondition;
+    private final FitnessFunction<E> fitnessFunction;
+    private final Function<RandomGenerator, Operators<E>> operators;
+    private final SplittableGenerator random;
+    private final ForkJoinPool pool;
+    private final int islands;
+    private final int populationSize;
+    private final int migrationInterval;
+    private final int migrants;
+    private final MigrationTopology topology;
+    private final SearchTrace trace;
+    private final ImprovementListener<E> listener;
+
+    /**
+     * The best individual evaluated on any island in the current search.
+     */
+    private E bestIndividual;
+
+    /**
+     * The fitness of the best individual evaluated in the current search.
+     */
+    private double bestFitness;
+
+    /**
+     * Creates a new island model genetic algorithm.
+     *
+     * @param stoppingCondition the stopping condition defining the budget shared by all islands
+     * @param fitnessFunction   the fitness function used to evaluate the quality of the individuals
+     * @param operators         creates the operators of an island from the source of randomness of
+     *                          the island
+     * @param random            the source of randomness for this algorithm, from which every
+     *                          island splits off a stream of its own
+     * @param pool              the pool to run the islands in
+     * @param islands           the number of islands
+     * @param populationSize    the number of individuals on every island
+     * @param migrationInterval the number of generations between two migrations
+     * @param migrants          the number of individuals every island sends per migration
+     * @param topology          which island every island sends its migrants to
+     * @param trace             the trace to report the evaluations to
+     * @param listener          the listener to report improvements to
+     */
+    public IslandGeneticAlgorithm(
+            final StoppingCondition stoppingCondition,
+            final FitnessFunction<E> fitnessFunction,
+            final Function<RandomGenerator, Operators<E>> operators,
+            final SplittableGenerator random,
+            final ForkJoinPool pool,
+            final int islands,
+            final int populationSize,
+            final int migrationInterval,
+            final int migrants,
+            final MigrationTopology topology,
+            final SearchTrace trace,
+            final ImprovementListener<E> listener) {
+        if (stoppingCondition == null || fitnessFunction == null || operators == null || random == null
+                || pool == null || topology == null || trace == null || listener == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (islands < 1) {
+            throw new IllegalArgumentException("Number of islands must be greater than 0");
+        }
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2");
+        }
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be greater than 0");
+        }
+        if (migrants < 0 || migrants >= populationSize) {
+            throw new IllegalArgumentException("Number of migrants must be in [0, population size)");
+        }
+        this.stoppingCondition = stoppingCondition;
+        this.fitnessFunction = fitnessFunction;
+        this.operators = operators;
+        this.random = random;
+        this.pool = pool;
+        this.islands = islands;
+        this.populationSize = populationSize;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+        this.topology = topology;
+        this.trace = trace;
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the island model genetic algorithm to find a solution to the given problem.
+     *
+     * @return the best individual found on any island
+     */
+    @Override
+    public E findSolution() {
+        bestIndividual = null;
+        bestFitness = Double.NEGATIVE_INFINITY;
+
+        notifySearchStarted();
+
+        final List<Island> archipelago = new ArrayList<>(islands);
+        for (int i = 0; i < islands; i++) {
+            archipelago.add(new Island(random.split()));
+        }
+
+        run(archipelago, Island::seed);
+        for (int generation = 1; !searchMustStop(); generation++) {
+            run(archipelago, Island::breed);
+            if (generation % migrationInterval == 0 && islands > 1 && migrants > 0) {
+                migrate(archipelago);
+            }
+        }
+
+        return bestIndividual;
+    }
+
+    /**
+     * Lets every island compute its next batch of offspring in parallel, then adds the offspring
+     * to the islands one after another as long as the budget allows.
+     *
+     * @param archipelago the islands
+     * @param step        computes the next batch of offspring of an island
+     */
+    private void run(final List<Island> archipelago, final Function<Island, Batch<E>> step) {
+        final List<Callable<Batch<E>>> tasks = archipelago.stream()
+                .<Callable<Batch<E>>>map(island -> () -> step.apply(island))
+                .toList();
+
+        final List<Future<Batch<E>>> batches = pool.invokeAll(tasks);
+        for (int i = 0; i < islands; i++) {
+            archipelago.get(i).settle(join(batches.get(i)));
+        }
+    }
+
+    /**
+     * Waits for the given batch of offspring.
+     *
+     * @param batch the batch of offspring
+     * @return the computed batch
+     */
+    private Batch<E> join(final Future<Batch<E>> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evolving islands", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Sends the best individuals of every island to its neighbour in the migration topology,
+     * where they replace the worst individuals.
+     *
+     * @param archipelago the islands
+     */
+    private void migrate(final List<Island> archipelago) {
+        final List<List<Individual<E>>> emigrants = archipelago.stream()
+                .map(Island::fittest)
+                .toList();
+
+        for (int i = 0; i < islands; i++) {
+            final int target = switch (topology) {
+                case RING -> (i + 1) % islands;
+                case RANDOM -> (i + 1 + random.nextInt(islands - 1)) % islands;
+            };
+            archipelago.get(target).receive(emigrants.get(i));
+        }
+    }
+
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return stoppingCondition;
+    }
+
+    /**
+     * A batch of offspring together with its fitness values.
+     *
+     * @param individuals the offspring
+     * @param fitness     the fitness of every offspring
+     * @param <E>         the type of encoding
+     */
+    private record Batch<E>(List<E> individuals, double[] fitness) {
+    }
+
+    /**
+     * A population evolving on its own.
+     */
+    private final class Island {
+
+        private final Operators<E> operators;
+        private final RandomGenerator random;
+
+        /**
+         * The individuals of the population.
+         */
+        private final List<Individual<E>> population = new ArrayList<>();
+
+        /**
+         * The best individual ever evaluated on this island.
+         */
+        private Individual<E> elite;
+
+        private Island(final RandomGenerator random) {
+            this.operators = IslandGeneticAlgorithm.this.operators.apply(random);
+            this.random = random;
+        }
+
+        /**
+         * Generates and evaluates the initial population.
+         *
+         * @return the initial population
+         */
+        private Batch<E> seed() {
+            final List<E> individuals = new ArrayList<>(populationSize);
+            for (int i = 0; i < populationSize; i++) {
+                individuals.add(operators.encodingGenerator().get());
+            }
+            return new Batch<>(individuals, fitnessFunction.maximiseAll(individuals));
+        }
+
+        /**
+         * Breeds and evaluates the next generation, except for the elite that is carried over.
+         *
+         * @return the offspring
+         */
+        private Batch<E> breed() {
+            final List<E> offspring = new ArrayList<>(populationSize - 1);
+            while (offspring.size() < populationSize - 1) {
+                final E parent1 = operators.parentSelection().selectParent(population).encoding();
+                final E parent2 = operators.parentSelection().selectParent(population).encoding();
+                final E child = random.nextDouble() < SimpleGeneticAlgorithm.CROSSOVER_PROBABILITY
+                        ? operators.crossover().apply(parent1, parent2)
+                        : parent1.deepCopy();
+                offspring.add(operators.mutation().apply(child));
+            }
+            return new Batch<>(offspring, fitnessFunction.maximiseAll(offspring));
+        }
+
+        /**
+         * Replaces the population by the given batch and the elite, notifying the stopping
+         * condition of every evaluation of the batch as long as the budget allows.
+         *
+         * @param batch the evaluated offspring
+         */
+        private void settle(final Batch<E> batch) {
+            population.clear();
+            for (int i = 0; i < batch.individuals().size() && !searchMustStop(); i++) {
+                final Individual<E> individual = new Individual<>(batch.individuals().get(i), batch.fitness()[i]);
+                notifyFitnessEvaluation();
+                population.add(individual);
+
+                if (elite == null || individual.fitness() > elite.fitness()) {
+                    elite = individual;
+                }
+                if (individual.fitness() > bestFitness) {
+                    bestIndividual = individual.encoding();
+                    bestFitness = individual.fitness();
+                    notifyImprovement(bestFitness);
+                    listener.improved(bestIndividual, bestFitness);
+                }
+                trace.evaluated(individual.fitness(), bestFitness);
+            }
+
+            if (elite != null && !population.contains(elite)) {
+                population.add(elite);
+            }
+        }
+
+        /**
+         * Returns the individuals to send to another island.
+         *
+         * @return the fittest individuals
+         */
+        private List<Individual<E>> fittest() {
+            return population.stream()
+                    .sorted(Comparator.comparingDouble(Individual<E>::fitness).reversed())
+                    .limit(migrants)
+                    .toList();
+        }
+
+        /**
+         * Replaces the worst individuals of this island by the given individuals of another one.
+         *
+         * @param immigrants the individuals from the other island
+         */
+        private void receive(final List<Individual<E>> immigrants) {
+            final List<Integer> worst = IntStream.range(0, population.size())
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(i -> population.get(i).fitness()))
+                    .limit(immigrants.size())
+                    .toList();
+            for (int i = 0; i < worst.size(); i++) {
+                population.set(worst.get(i), immigrants.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
+
+/**
+ * Enum specifying along which edges migrants travel between the islands of an
+ * {@link IslandGeneticAlgorithm}.
+ */
+public enum MigrationTopology {
+
+    /**
+     * Island {@code i} sends its migrants to island {@code i + 1}, the last island to the first.
+     */
+    RING,
+
+    /**
+     * Every island sends its migrants to another island chosen uniformly at random.
+     */
+    RANDOM
+}
@@ -0,0 +1,401 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Encoding;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.EncodingGenerator;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.MutableEncoding;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Implements parallel tempering, also known as replica-exchange simulated annealing. Several
+ * replicas of a {@link SimulatedAnnealing} chain explore the search space, every one of them at a
+ * fixed temperature of a geometric ladder. The hot replicas wander around freely, while the cold
+ * ones descend into the nearest local optimum. Every few steps, replicas at neighbouring
+ * temperatures try to exchange their temperatures, so that good states found by hot replicas are
+ * refined by cold ones, and cold replicas stuck in a local optimum are heated up again. Unlike a
+ * cooling schedule, the ladder never freezes, so the search keeps exploring for the whole budget.
+ * <p>
+ * The replicas advance in lockstep: all replicas perform the steps up to the next exchange in
+ * parallel. Afterwards, the search thread notifies the shared stopping condition of the
+ * evaluations step by step, in every step replica by replica, discarding the steps that exceed
+ * the budget, and performs the exchanges. Every replica draws its random decisions from its own
+ * stream of randomness, which is split off the one of the algorithm. Thus, the result of a search
+ * is reproducible for a fixed seed, and the budget is respected exactly.
+ *
+ * @param <E> the type of encoding
+ */
+public final class ParallelTempering<E extends Encoding<E>> implements SearchAlgorithm<E> {
+
+    private final StoppingCondition stoppingCondition;
+    private final FitnessFunction<E> energy;
+    private final Function<RandomGenerator, EncodingGenerator<E>> encodingGenerators;
+    private final SplittableGenerator random;
+    private final ForkJoinPool pool;
+    private final int exchangeInterval;
+    private final SearchTrace trace;
+    private final ImprovementListener<E> listener;
+
+    /**
+     * The temperatures of the ladder in ascending order.
+     */
+    private final double[] temperatures;
+
+    /**
+     * The best state found by any replica in the current search.
+     */
+    private E bestSolution;
+
+    /**
+     * The energy of the best state found in the current search.
+     */
+    private double bestEnergy;
+
+    /**
+     * Creates a new parallel tempering algorithm.
+     *
+     * @param stoppingCondition  the stopping condition defining the budget shared by all replicas
+     * @param encodingGenerators creates the encoding generator of a replica from the source of
+     *                           randomness of the replica, which the generated encodings must also
+     *                           mutate with
+     * @param energy             the fitness function to minimise
+     * @param random             the source of randomness for this algorithm, from which every
+     *                           replica splits off a stream of its own
+     * @param pool               the pool to run the replicas in
+     * @param replicas           the number of replicas, i.e., the number of rungs of the ladder
+     * @param minTemperature     the temperature of the coldest replica
+     * @param maxTemperature     the temperature of the hottest replica
+     * @param exchangeInterval   the number of steps every replica performs between two exchanges
+     * @param trace              the trace to report the evaluations to
+     * @param listener           the listener to report improvements to
+     */
+    public ParallelTempering(
+            final StoppingCondition stoppingCondition,
+            final Function<RandomGenerator, EncodingGenerator<E>> encodingGenerators,
+            final FitnessFunction<E> energy,
+            final SplittableGenerator random,
+            final ForkJoinPool pool,
+            final int replicas,
+            final double minTemperature,
+            final double maxTemperature,
+            final int exchangeInterval,
+            final SearchTrace trace,
+            final ImprovementListener<E> listener) {
+        if (stoppingCondition == null || encodingGenerators == null || energy == null || random == null
+                || pool == null || trace == null || listener == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (replicas < 1) {
+            throw new IllegalArgumentException("Number of replicas must be greater than 0");
+        }
+        if (!(minTemperature > 0) || !(maxTemperature >= minTemperature) || Double.isInfinite(maxTemperature)) {
+            throw new IllegalArgumentException("Temperatures must be finite and satisfy 0 < min <= max");
+        }
+        if (exchangeInterval < 1) {
+            throw new IllegalArgumentException("Exchange interval must be greater than 0");
+        }
+        this.stoppingCondition = stoppingCondition;
+        this.encodingGenerators = encodingGenerators;
+        this.energy = energy;
+        this.random = random;
+        this.pool = pool;
+        this.exchangeInterval = exchangeInterval;
+        this.trace = trace;
+        this.listener = listener;
+        this.temperatures = ladder(replicas, minTemperature, maxTemperature);
+    }
+
+    /**
+     * Spaces the given number of temperatures geometrically between the given bounds, so that
+     * neighbouring replicas accept a worsening move of any size with similar probabilities.
+     *
+     * @param replicas       the number of temperatures
+     * @param minTemperature the lowest temperature
+     * @param maxTemperature the highest temperature
+     * @return the temperatures in ascending order
+     */
+    private static double[] ladder(final int replicas, final double minTemperature, final double maxTemperature) {
+        final double[] ladder = new double[replicas];
+        ladder[0] = minTemperature;
+        for (int k = 1; k < replicas; k++) {
+            ladder[k] = minTemperature * Math.pow(maxTemperature / minTemperature, (double) k / (replicas - 1));
+        }
+        return ladder;
+    }
+
+    /**
+     * Runs parallel tempering to find a solution to the given problem.
+     *
+     * @return the best state found by any replica
+     */
+    @Override
+    public E findSolution() {
+        bestSolution = null;
+        bestEnergy = Double.POSITIVE_INFINITY;
+
+        notifySearchStarted();
+
+        // ladder.get(k) is the replica currently at temperature temperatures[k].
+        final List<Replica> ladder = new ArrayList<>(temperatures.length);
+        for (final double temperature : temperatures) {
+            ladder.add(new Replica(random.split(), temperature));
+        }
+
+        run(ladder, 1, Replica::seed);
+        for (int round = 0; !searchMustStop(); round++) {
+            run(ladder, exchangeInterval, Replica::anneal);
+            if (!searchMustStop()) {
+                exchange(ladder, round % 2);
+            }
+        }
+
+        return bestSolution;
+    }
+
+    /**
+     * Lets every replica perform the given number of steps in parallel, then notifies the stopping
+     * condition of the evaluations as long as the budget allows and settles the replicas.
+     *
+     * @param ladder the replicas
+     * @param steps  the number of steps every replica performs
+     * @param step   performs the steps of a replica
+     */
+    private void run(final List<Replica> ladder, final int steps, final Consumer<Replica> step) {
+        final double threshold = bestEnergy;
+        final List<Callable<Void>> tasks = ladder.stream()
+                .<Callable<Void>>map(replica -> () -> {
+                    replica.improvements.clear();
+                    replica.threshold = threshold;
+                    step.accept(replica);
+                    return null;
+                })
+                .toList();
+
+        final List<Future<Void>> futures = pool.invokeAll(tasks);
+        for (final Future<Void> future : futures) {
+            join(future);
+        }
+
+        final int[] billed = new int[ladder.size()];
+        double billedEnergy = bestEnergy;
+        billing:
+        for (int s = 0; s < steps; s++) {
+            for (int i = 0; i < ladder.size(); i++) {
+                if (searchMustStop()) {
+                    break billing;
+                }
+                notifyFitnessEvaluation();
+                billed[i] = s + 1;
+
+                final Replica replica = ladder.get(i);
+                if (replica.energies[s] < billedEnergy) {
+                    billedEnergy = replica.energies[s];
+                    notifyImprovement(-billedEnergy);
+                    listener.improved(replica.solutionAt(s), -billedEnergy);
+                }
+                trace.evaluated(-replica.energies[s], -billedEnergy, replica.temperature);
+            }
+        }
+
+        for (int i = 0; i < ladder.size(); i++) {
+            ladder.get(i).settle(billed[i]);
+        }
+    }
+
+    /**
+     * Waits for the steps of a replica.
+     *
+     * @param future the running steps
+     */
+    private static void join(final Future<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while annealing replicas", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Lets the replicas at neighbouring temperatures try to exchange their temperatures. Only
+     * every other pair of neighbours is considered per round, starting with the pair at the given
+     * parity, so that a good state can travel down the whole ladder in as many rounds as there
+     * are replicas.
+     *
+     * @param ladder the replicas
+     * @param parity 0 to start with the two coldest replicas, 1 to start with the second coldest
+     */
+    private void exchange(final List<Replica> ladder, final int parity) {
+        for (int k = parity; k + 1 < ladder.size(); k += 2) {
+            final Replica colder = ladder.get(k);
+            final Replica hotter = ladder.get(k + 1);
+
+            // The Metropolis criterion of the joint state of both replicas.
+            final double exponent = (1 / temperatures[k] - 1 / temperatures[k + 1]) * (colder.energy - hotter.energy);
+            if (exponent >= 0 || Math.exp(exponent) > random.nextDouble()) {
+                colder.temperature = temperatures[k + 1];
+                hotter.temperature = temperatures[k];
+                ladder.set(k, hotter);
+                ladder.set(k + 1, colder);
+            }
+        }
+    }
+
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return stoppingCondition;
+    }
+
+    /**
+     * A state found by a replica that was better than the best state of the search when the steps
+     * of the replica started.
+     *
+     * @param step     the index of the step the state was found in
+     * @param solution a snapshot of the state
+     * @param energy   the energy of the state
+     * @param <E>      the type of encoding
+     */
+    private record Improvement<E>(int step, E solution, double energy) {
+    }
+
+    /**
+     * A simulated annealing chain at a fixed temperature.
+     */
+    private final class Replica {
+
+        private final EncodingGenerator<E> encodingGenerator;
+        private final RandomGenerator random;
+
+        /**
+         * The current temperature, changed by exchanges only.
+         */
+        private double temperature;
+
+        /**
+         * The current state.
+         */
+        private MutableEncoding<E> state;
+
+        /**
+         * The energy of the current state.
+         */
+        private double energy;
+
+        /**
+         * The energy of the current state after every step of the current steps.
+         */
+        private final double[] energies = new double[exchangeInterval];
+
+        /**
+         * The energy a state must fall below to be recorded as an improvement.
+         */
+        private double threshold;
+
+        /**
+         * The improvements found in the current steps, with decreasing energy.
+         */
+        private final List<Improvement<E>> improvements = new ArrayList<>();
+
+        private Replica(final RandomGenerator random, final double temperature) {
+            this.encodingGenerator = encodingGenerators.apply(random);
+            this.random = random;
+            this.temperature = temperature;
+        }
+
+        /**
+         * Generates and evaluates the initial state.
+         */
+        private void seed() {
+            state = encodingGenerator.get().mutableCopy();
+            energy = ParallelTempering.this.energy.minimise(state.current());
+            energies[0] = energy;
+            record(0);
+        }
+
+        /**
+         * Performs {@link #exchangeInterval} steps of simulated annealing at the current
+         * temperature.
+         */
+        private void anneal() {
+            for (int step = 0; step < exchangeInterval; step++) {
+                state.mutateInPlace();
+                final double neighbourEnergy = ParallelTempering.this.energy.minimise(state.current());
+
+                if (neighbourEnergy < energy || Math.exp((energy - neighbourEnergy) / temperature) > random.nextDouble()) {
+                    state.commit();
+                    energy = neighbourEnergy;
+                    record(step);
+                } else {
+                    state.revert();
+                }
+                energies[step] = energy;
+            }
+        }
+
+        /**
+         * Records the current state if it is better than any state recorded before.
+         *
+         * @param step the index of the current step
+         */
+        private void record(final int step) {
+            if (energy < threshold) {
+                threshold = energy;
+                improvements.add(new Improvement<>(step, state.snapshot(), energy));
+            }
+        }
+
+        /**
+         * Returns the state after the given step, which must be a better state than any before it.
+         * Since the billed states are better than all states billed before, and those include the
+         * earlier states of this replica, every billed state that improves on the search has been
+         * recorded.
+         *
+         * @param step the index of the step
+         * @return a snapshot of the state
+         */
+        private E solutionAt(final int step) {
+            for (int i = improvements.size() - 1; i >= 0; i--) {
+                if (improvements.get(i).step() <= step) {
+                    return improvements.get(i).solution();
+                }
+            }
+            throw new IllegalStateException("State was not recorded");
+        }
+
+        /**
+         * Updates the best state of the search with the best improvement found within the given
+         * number of steps, the remaining ones exceeding the budget.
+         *
+         * @param steps the number of steps within the budget
+         */
+        private void settle(final int steps) {
+            for (int i = improvements.size() - 1; i >= 0; i--) {
+                final Improvement<E> improvement = improvements.get(i);
+                if (improvement.step() < steps) {
+                    if (improvement.energy() < bestEnergy) {
+                        bestSolution = improvement.solution();
+                        bestEnergy = improvement.energy();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
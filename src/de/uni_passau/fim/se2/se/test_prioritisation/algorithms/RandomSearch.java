@@ -1,8 +1,10 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Encoding;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.EncodingGenerator;
 import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
 import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
 
 /**
@@ -15,6 +17,8 @@ public final class RandomSearch<E extends Encoding<E>> implements SearchAlgorith
     private final StoppingCondition stoppingCondition;
     private final EncodingGenerator<E> encodingGenerator;
     private final FitnessFunction<E> fitnessFunction;
+    private final SearchTrace trace;
+    private final ImprovementListener<E> listener;
 
     /**
      * Constructs a RandomSearch instance.
@@ -22,17 +26,24 @@ public final class RandomSearch<E extends Encoding<E>> implements SearchAlgorith
      * @param stoppingCondition the condition determining when the search stops
      * @param encodingGenerator the generator to produce random solutions
      * @param fitnessFunction   the function to evaluate the quality of solutions
+     * @param trace             the trace to report the evaluations to
+     * @param listener          the listener to report improvements to
      */
     public RandomSearch(
             final StoppingCondition stoppingCondition,
             final EncodingGenerator<E> encodingGenerator,
-            final FitnessFunction<E> fitnessFunction) {
-        if (stoppingCondition == null || encodingGenerator == null || fitnessFunction == null) {
+            final FitnessFunction<E> fitnessFunction,
+            final SearchTrace trace,
+            final ImprovementListener<E> listener) {
+        if (stoppingCondition == null || encodingGenerator == null || fitnessFunction == null || trace == null
+                || listener == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
         this.stoppingCondition = stoppingCondition;
         this.encodingGenerator = encodingGenerator;
         this.fitnessFunction = fitnessFunction;
+        this.trace = trace;
+        this.listener = listener;
     }
 
     /**
@@ -54,14 +65,17 @@ public final class RandomSearch<E extends Encoding<E>> implements SearchAlgorith
             // Evaluate the fitness of the candidate solution
             double fitness = fitnessFunction.maximise(candidate);
 
+            // Notify the stopping condition after each fitness evaluation
+            stoppingCondition.notifyFitnessEvaluation();
+
             // Check if the candidate is better than the current best solution
             if (fitness > bestFitness) {
                 bestFitness = fitness;
                 bestSolution = candidate;
+                stoppingCondition.notifyImprovement(bestFitness);
+                listener.improved(bestSolution, bestFitness);
             }
-
-            // Notify the stopping condition after each fitness evaluation
-            stoppingCondition.notifyFitnessEvaluation();
+            trace.evaluated(fitness, bestFitness);
         }
 
         // Return the best solution found
@@ -1,14 +1,18 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Encoding;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.EncodingGenerator;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.MutableEncoding;
 import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
 import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
 
-import java.util.Random;
-
 /**
  * Implements a random walk through the search space.
+ * <p>
+ * The walk moves a single {@link MutableEncoding} from neighbour to neighbour, so encodings that
+ * support in-place mutation are not copied per step, only when a new best solution is found.
  *
  * @param <E> the type of encoding
  */
@@ -16,6 +20,8 @@ public final class RandomWalk<E extends Encoding<E>> implements SearchAlgorithm<
     private final StoppingCondition stoppingCondition;
     private final EncodingGenerator<E> encodingGenerator;
     private final FitnessFunction<E> fitnessFunction;
+    private final SearchTrace trace;
+    private final ImprovementListener<E> listener;
 
     /**
      * Constructs a RandomWalk instance.
@@ -23,17 +29,24 @@ public final class RandomWalk<E extends Encoding<E>> implements SearchAlgorithm<
      * @param stoppingCondition the condition determining when the search stops
      * @param encodingGenerator the generator to produce initial solutions
      * @param fitnessFunction   the function to evaluate the quality of solutions
+     * @param trace             the trace to report the evaluations to
+     * @param listener          the listener to report improvements to
      */
     public RandomWalk(
             final StoppingCondition stoppingCondition,
             final EncodingGenerator<E> encodingGenerator,
-            final FitnessFunction<E> fitnessFunction) {
-        if (stoppingCondition == null || encodingGenerator == null || fitnessFunction == null) {
+            final FitnessFunction<E> fitnessFunction,
+            final SearchTrace trace,
+            final ImprovementListener<E> listener) {
+        if (stoppingCondition == null || encodingGenerator == null || fitnessFunction == null || trace == null
+                || listener == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
         this.stoppingCondition = stoppingCondition;
         this.encodingGenerator = encodingGenerator;
         this.fitnessFunction = fitnessFunction;
+        this.trace = trace;
+        this.listener = listener;
     }
 
     /**
@@ -44,26 +57,29 @@ public final class RandomWalk<E extends Encoding<E>> implements SearchAlgorithm<
     @Override
     public E findSolution() {
         // Generate the initial solution
-        E currentSolution = encodingGenerator.get();
-        double bestFitness = fitnessFunction.maximise(currentSolution);
-        E bestSolution = currentSolution;
+        final MutableEncoding<E> currentSolution = encodingGenerator.get().mutableCopy();
+        double bestFitness = fitnessFunction.maximise(currentSolution.current());
+        E bestSolution = currentSolution.snapshot();
 
         stoppingCondition.notifySearchStarted(); // Notify the stopping condition that search has started
+        stoppingCondition.notifyImprovement(bestFitness);
+        listener.improved(bestSolution, bestFitness);
 
         while (!stoppingCondition.searchMustStop()) { // Check stopping condition
-            // Generate a mutated neighbor of the current solution
-            E neighbor = currentSolution.mutate(new Random(), 1);
-            double fitness = fitnessFunction.maximise(neighbor);
+            // Move to a mutated neighbor of the current solution
+            currentSolution.mutateInPlace();
+            currentSolution.commit();
+            double fitness = fitnessFunction.maximise(currentSolution.current());
+            stoppingCondition.notifyFitnessEvaluation(); // Notify after fitness evaluation
 
             // Update the best solution if the neighbor is better
             if (fitness > bestFitness) {
                 bestFitness = fitness;
-                bestSolution = neighbor;
+                bestSolution = currentSolution.snapshot();
+                stoppingCondition.notifyImprovement(bestFitness);
+                listener.improved(bestSolution, bestFitness);
             }
-
-            // Move to the neighbor solution
-            currentSolution = neighbor;
-            stoppingCondition.notifyFitnessEvaluation(); // Notify after fitness evaluation
+            trace.evaluated(fitness, bestFitness);
         }
 
         // Return the best solution found
@@ -42,6 +42,15 @@ public interface SearchAlgorithm<E> {
         getStoppingCondition().notifyFitnessEvaluation();
     }
 
+    /**
+     * Notifies the observing stopping condition that a new best solution was found.
+     *
+     * @param fitness the fitness of the new best solution, where higher values are better
+     */
+    default void notifyImprovement(final double fitness) {
+        getStoppingCondition().notifyImprovement(fitness);
+    }
+
     /**
      * Tells the search algorithm whether it has to stop due to an exhausted search budget.
      *
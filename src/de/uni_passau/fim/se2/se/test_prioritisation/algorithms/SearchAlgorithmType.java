@@ -7,5 +7,8 @@ public enum SearchAlgorithmType {
     RANDOM_SEARCH,
     RANDOM_WALK,
     SIMULATED_ANNEALING,
-    SIMPLE_GENETIC_ALGORITHM
+    SIMPLE_GENETIC_ALGORITHM,
+    ISLAND_GENETIC_ALGORITHM,
+    HILL_CLIMBING,
+    PARALLEL_TEMPERING
 }
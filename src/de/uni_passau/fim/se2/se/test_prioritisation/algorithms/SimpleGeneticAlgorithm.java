@@ -1,16 +1,69 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
 import de.uni_passau.fim.se2.se.test_prioritisation.crossover.Crossover;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Encoding;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.EncodingGenerator;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Individual;
 import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.FitnessFunction;
 import de.uni_passau.fim.se2.se.test_prioritisation.parent_selection.ParentSelection;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
 import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
 
+/**
+ * Implements a generational genetic algorithm with elitism. In every generation, a complete new
+ * population is bred from the current one by parent selection, crossover and mutation, and the
+ * best individual found so far is carried over unchanged.
+ * <p>
+ * Every new population is evaluated as one batch (see {@link FitnessFunction#maximiseAll(List)}),
+ * which allows the fitness function to evaluate the individuals in parallel. Every individual keeps
+ * the fitness it was evaluated with, so parent selection does not evaluate it again and every
+ * evaluation is accounted for by the stopping condition. All random decisions
+ * are made by the search thread before a batch is evaluated, and the stopping condition is
+ * notified of the evaluations one by one in population order afterwards, so the result of a
+ * search is reproducible for a fixed seed regardless of the number of threads. If the budget
+ * runs out in the middle of a batch, the remaining individuals of the batch are discarded, as if
+ * they had never been evaluated.
+ *
+ * @param <E> the type of encoding
+ */
 public final class SimpleGeneticAlgorithm<E extends Encoding<E>> implements SearchAlgorithm<E> {
 
+    /**
+     * The number of individuals in the population, unless specified otherwise.
+     */
+    public static final int DEFAULT_POPULATION_SIZE = 50;
+
+    /**
+     * The probability that two selected parents are recombined. Otherwise, the offspring is a copy
+     * of the first parent.
+     */
+    static final double CROSSOVER_PROBABILITY = 0.7;
+
+    private final StoppingCondition stoppingCondition;
+    private final EncodingGenerator<E> encodingGenerator;
+    private final FitnessFunction<E> fitnessFunction;
+    private final Crossover<E> crossover;
+    private final ParentSelection<E> parentSelection;
+    private final RandomGenerator random;
+    private final int populationSize;
+    private final SearchTrace trace;
+    private final ImprovementListener<E> listener;
+
+    /**
+     * The best individual evaluated in the current search.
+     */
+    private E bestIndividual;
+
+    /**
+     * The fitness of the best individual evaluated in the current search.
+     */
+    private double bestFitness;
+
     /**
      * Creates a new simple genetic algorithm with the given components.
      *
@@ -20,6 +73,8 @@ public final class SimpleGeneticAlgorithm<E extends Encoding<E>> implements Sear
      * @param crossover         the crossover operator used to create offspring from parents
      * @param parentSelection   the parent selection operator used to select parents for the next generation
      * @param random            the source of randomness for this algorithm
+     * @param trace             the trace to report the evaluations to
+     * @param listener          the listener to report improvements to
      */
     public SimpleGeneticAlgorithm(
             final StoppingCondition stoppingCondition,
@@ -27,8 +82,53 @@ public final class SimpleGeneticAlgorithm<E extends Encoding<E>> implements Sear
             final FitnessFunction<E> fitnessFunction,
             final Crossover<E> crossover,
             final ParentSelection<E> parentSelection,
-            final Random random) {
-        throw new UnsupportedOperationException("Implement me");
+            final RandomGenerator random,
+            final SearchTrace trace,
+            final ImprovementListener<E> listener) {
+        this(stoppingCondition, encodingGenerator, fitnessFunction, crossover, parentSelection, random,
+                DEFAULT_POPULATION_SIZE, trace, listener);
+    }
+
+    /**
+     * Creates a new simple genetic algorithm with the given components and population size.
+     *
+     * @param stoppingCondition the stopping condition to be used by the genetic algorithm
+     * @param encodingGenerator the encoding generator used to create the initial population
+     * @param fitnessFunction   the fitness function used to evaluate the quality of the individuals in the population
+     * @param crossover         the crossover operator used to create offspring from parents
+     * @param parentSelection   the parent selection operator used to select parents for the next generation
+     * @param random            the source of randomness for this algorithm
+     * @param populationSize    the number of individuals in the population
+     * @param trace             the trace to report the evaluations to
+     * @param listener          the listener to report improvements to
+     */
+    public SimpleGeneticAlgorithm(
+            final StoppingCondition stoppingCondition,
+            final EncodingGenerator<E> encodingGenerator,
+            final FitnessFunction<E> fitnessFunction,
+            final Crossover<E> crossover,
+            final ParentSelection<E> parentSelection,
+            final RandomGenerator random,
+            final int populationSize,
+            final SearchTrace trace,
+            final ImprovementListener<E> listener) {
+        if (stoppingCondition == null || encodingGenerator == null || fitnessFunction == null
+                || crossover == null || parentSelection == null || random == null || trace == null
+                || listener == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2");
+        }
+        this.stoppingCondition = stoppingCondition;
+        this.encodingGenerator = encodingGenerator;
+        this.fitnessFunction = fitnessFunction;
+        this.crossover = crossover;
+        this.parentSelection = parentSelection;
+        this.random = random;
+        this.populationSize = populationSize;
+        this.trace = trace;
+        this.listener = listener;
     }
 
     /**
@@ -38,11 +138,67 @@ public final class SimpleGeneticAlgorithm<E extends Encoding<E>> implements Sear
      */
     @Override
     public E findSolution() {
-        throw new UnsupportedOperationException("Implement me");
+        bestIndividual = null;
+        bestFitness = Double.NEGATIVE_INFINITY;
+
+        notifySearchStarted();
+
+        // Generate and evaluate the initial population
+        final List<E> initialPopulation = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            initialPopulation.add(encodingGenerator.get());
+        }
+        List<Individual<E>> population = evaluate(initialPopulation);
+
+        while (!searchMustStop()) {
+            // Breed the next generation, keeping the best individual found so far
+            final List<E> offspring = new ArrayList<>(populationSize - 1);
+            while (offspring.size() < populationSize - 1) {
+                final E parent1 = parentSelection.selectParent(population).encoding();
+                final E parent2 = parentSelection.selectParent(population).encoding();
+                final E child = random.nextDouble() < CROSSOVER_PROBABILITY
+                        ? crossover.apply(parent1, parent2)
+                        : parent1.deepCopy();
+                offspring.add(child.mutate(random, 1));
+            }
+
+            final Individual<E> elite = new Individual<>(bestIndividual, bestFitness);
+            population = evaluate(offspring);
+            population.add(elite);
+        }
+
+        return bestIndividual;
+    }
+
+    /**
+     * Evaluates the given individuals as one batch and notifies the stopping condition of every
+     * evaluation in order, until the budget is exhausted. Individuals beyond that point are
+     * discarded.
+     *
+     * @param individuals the individuals to evaluate
+     * @return the individuals whose evaluation was within the budget, with their fitness
+     */
+    private List<Individual<E>> evaluate(final List<E> individuals) {
+        final double[] fitness = fitnessFunction.maximiseAll(individuals);
+        final List<Individual<E>> evaluated = new ArrayList<>(populationSize);
+        for (int i = 0; i < fitness.length && !searchMustStop(); i++) {
+            final E individual = individuals.get(i);
+            notifyFitnessEvaluation();
+            evaluated.add(new Individual<>(individual, fitness[i]));
+
+            if (fitness[i] > bestFitness) {
+                bestFitness = fitness[i];
+                bestIndividual = individual;
+                notifyImprovement(bestFitness);
+                listener.improved(bestIndividual, bestFitness);
+            }
+            trace.evaluated(fitness[i], bestFitness);
+        }
+        return evaluated;
     }
 
     @Override
     public StoppingCondition getStoppingCondition() {
-        throw new UnsupportedOperationException("Implement me");
+        return stoppingCondition;
     }
 }
@@ -1,12 +1,15 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.algorithms;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
+import de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules.CoolingSchedule;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Encoding;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.EncodingGenerator;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.MutableEncoding;
 import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
 import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
-import de.uni_passau.fim.se2.se.test_prioritisation.utils.Randomness;  // Import the Randomness class
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Implements the Simulated Annealing algorithm for test order prioritisation based on
@@ -16,68 +19,148 @@ import java.util.Random;
  * (Springer), Ch. 4.3, Page 63
  * -----------------------------------------------------------------------------------------
  * Note we've applied a few modifications to add elitism.
+ * <p>
+ * Neighbours are generated by mutating a single {@link MutableEncoding} and reverting the mutation
+ * if the neighbour is rejected, so encodings that support in-place mutation are not copied per
+ * step, only when a new best solution is found.
+ * <p>
+ * The temperature follows a {@link CoolingSchedule} driven by the progress of the search, so that
+ * the search cools down over the whole budget. Unless an initial temperature is given, it is
+ * calibrated from the energy differences of a sample of neighbours of the initial solution, such
+ * that a neighbour worsening the energy by the average amount is accepted with probability
+ * {@link #INITIAL_ACCEPTANCE}. This adapts the temperature to the scale of the energy at hand.
  *
  * @param <E> the type of encoding
  */
 public final class SimulatedAnnealing<E extends Encoding<E>> implements SearchAlgorithm<E> {
+
+    /**
+     * The number of neighbours of the initial solution sampled to calibrate the initial
+     * temperature.
+     */
+    public static final int CALIBRATION_SAMPLES = 100;
+
+    /**
+     * The probability of accepting a neighbour worsening the energy by the average amount at the
+     * calibrated initial temperature.
+     */
+    public static final double INITIAL_ACCEPTANCE = 0.8;
+
     private final StoppingCondition stoppingCondition;
     private final EncodingGenerator<E> encodingGenerator;
     private final FitnessFunction<E> energy;
-    private final int degreesOfFreedom;
+    private final CoolingSchedule coolingSchedule;
+    private final double initialTemperature;
+    private final RandomGenerator random;
+    private final SearchTrace trace;
+    private final ImprovementListener<E> listener;
 
+    /**
+     * Creates a new simulated annealing algorithm.
+     *
+     * @param stoppingCondition  the stopping condition to use
+     * @param encodingGenerator  the encoding generator used to create the initial solution
+     * @param energy             the fitness function to minimise
+     * @param coolingSchedule    the cooling schedule determining the temperature
+     * @param initialTemperature the temperature at the start of the search, or 0 to calibrate it
+     * @param random             the source of randomness
+     * @param trace              the trace to report the evaluations to
+     * @param listener           the listener to report improvements to
+     */
     public SimulatedAnnealing(
             final StoppingCondition stoppingCondition,
             final EncodingGenerator<E> encodingGenerator,
             final FitnessFunction<E> energy,
-            final int degreesOfFreedom, Random random) {
-        if (stoppingCondition == null || encodingGenerator == null || energy == null) {
+            final CoolingSchedule coolingSchedule,
+            final double initialTemperature,
+            final RandomGenerator random,
+            final SearchTrace trace,
+            final ImprovementListener<E> listener) {
+        if (stoppingCondition == null || encodingGenerator == null || energy == null || coolingSchedule == null
+                || random == null || trace == null || listener == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
+        if (!(initialTemperature >= 0) || Double.isInfinite(initialTemperature)) {
+            throw new IllegalArgumentException("Initial temperature must be finite and non-negative");
+        }
         this.stoppingCondition = stoppingCondition;
         this.encodingGenerator = encodingGenerator;
         this.energy = energy;
-        this.degreesOfFreedom = degreesOfFreedom;
+        this.coolingSchedule = coolingSchedule;
+        this.initialTemperature = initialTemperature;
+        this.random = random;
+        this.trace = trace;
+        this.listener = listener;
     }
 
     @Override
     public E findSolution() {
-        E currentSolution = encodingGenerator.get();  // Generate initial solution
-        double currentEnergy = energy.minimise(currentSolution);
-        E bestSolution = currentSolution;
+        final MutableEncoding<E> currentSolution = encodingGenerator.get().mutableCopy();  // Generate initial solution
+        double currentEnergy = energy.minimise(currentSolution.current());
+        E bestSolution = currentSolution.snapshot();
         double bestEnergy = currentEnergy;
 
-        double temperature = 1000.0; // Initial temperature
-        double coolingRate = 0.95;  // Cooling factor
-        int iterationCount = 0;
-
         stoppingCondition.notifySearchStarted();  // Notify search start
+        stoppingCondition.notifyImprovement(-bestEnergy);
+        listener.improved(bestSolution, -bestEnergy);
+
+        double temperature = initialTemperature;
+        if (temperature == 0) {
+            // Sample neighbours of the initial solution, keeping the best one in case it improves.
+            double worsening = 0;
+            int worseNeighbours = 0;
+            for (int i = 0; i < CALIBRATION_SAMPLES && !stoppingCondition.searchMustStop(); i++) {
+                currentSolution.mutateInPlace();
+                final double neighborEnergy = energy.minimise(currentSolution.current());
+                stoppingCondition.notifyFitnessEvaluation();
+                if (neighborEnergy > currentEnergy) {
+                    worsening += neighborEnergy - currentEnergy;
+                    worseNeighbours++;
+                } else if (neighborEnergy < bestEnergy) {
+                    bestSolution = currentSolution.snapshot();
+                    bestEnergy = neighborEnergy;
+                    stoppingCondition.notifyImprovement(-bestEnergy);
+                    listener.improved(bestSolution, -bestEnergy);
+                }
+                currentSolution.revert();
+                trace.evaluated(-currentEnergy, -bestEnergy);
+            }
+
+            // Without any worsening neighbour, the temperature does not matter.
+            temperature = worseNeighbours == 0
+                    ? Double.MIN_NORMAL
+                    : -(worsening / worseNeighbours) / Math.log(INITIAL_ACCEPTANCE);
+        }
+        coolingSchedule.start(temperature);
 
         while (!stoppingCondition.searchMustStop()) {
+            // Cooling schedule
+            temperature = coolingSchedule.temperature(getProgress());
+
             // Generate a neighbor solution
-            E neighbor = currentSolution.mutate(Randomness.random(), degreesOfFreedom);
-            double neighborEnergy = energy.minimise(neighbor);
+            currentSolution.mutateInPlace();
+            double neighborEnergy = energy.minimise(currentSolution.current());
+            stoppingCondition.notifyFitnessEvaluation(); // Notify fitness evaluation
 
             // Acceptance probability
-            if (neighborEnergy < currentEnergy || Math.exp((currentEnergy - neighborEnergy) / temperature) > Randomness.random().nextDouble()) {
-                currentSolution = neighbor;
+            final boolean accepted = neighborEnergy < currentEnergy
+                    || Math.exp((currentEnergy - neighborEnergy) / temperature) > random.nextDouble();
+            coolingSchedule.notifyMove(neighborEnergy - currentEnergy, accepted);
+            if (accepted) {
+                currentSolution.commit();
                 currentEnergy = neighborEnergy;
 
                 // Update the best solution
                 if (currentEnergy < bestEnergy) {
-                    bestSolution = currentSolution;
+                    bestSolution = currentSolution.snapshot();
                     bestEnergy = currentEnergy;
+                    stoppingCondition.notifyImprovement(-bestEnergy);
+                    listener.improved(bestSolution, -bestEnergy);
                 }
+            } else {
+                currentSolution.revert();
             }
-
-            // Cooling schedule
-            temperature *= coolingRate;
-            iterationCount++;
-
-            // Debugging logs (optional)
-            System.out.printf("Iteration: %d, Temperature: %.2f, Current Energy: %.4f, Best Energy: %.4f%n",
-                    iterationCount, temperature, currentEnergy, bestEnergy);
-
-            stoppingCondition.notifyFitnessEvaluation(); // Notify fitness evaluation
+            trace.evaluated(-currentEnergy, -bestEnergy, temperature);
         }
 
         return bestSolution;
@@ -0,0 +1,281 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.anytime;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.algorithms.SearchAlgorithm;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.AnyOf;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.Cancellation;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Runs a search in anytime mode: while the search is running, every new best solution is
+ * published to the subscribers, so they can start working with a good solution long before the
+ * search has finished, e.g., start executing tests in a good order and refine the order of the
+ * remaining tests later on. The search can be cancelled at any time, in which case it returns the
+ * best solution found so far.
+ * <p>
+ * Subscribers are only interested in the best solution, so improvements are conflated: a
+ * subscriber that requests more slowly than the search improves skips the intermediate solutions
+ * and receives the latest one. Thus, the search never waits for a subscriber, and a subscriber
+ * always receives the final best solution before completion, even if it subscribes after the
+ * search has finished. Improvements are delivered by the given executor, never by the thread
+ * running the search.
+ *
+ * @param <E> the type of the solution encoding
+ */
+public final class AnytimeSearch<E> implements Flow.Publisher<Improvement<E>> {
+
+    private final SearchAlgorithm<E> search;
+    private final Cancellation cancellation = new Cancellation();
+
+    /**
+     * The executor delivering the improvements to the subscribers.
+     */
+    private final Executor executor;
+
+    private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * The best solution found so far, or {@code null} if there is none yet.
+     */
+    private volatile Improvement<E> best;
+
+    private volatile boolean finished;
+
+    /**
+     * The exception that ended the search, if any.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Creates a new anytime search that delivers improvements in the common pool.
+     *
+     * @param stoppingCondition the condition determining when the search stops unless cancelled
+     * @param searches          builds the search from its stopping condition and the listener to
+     *                          report improvements to, e.g., by means of the algorithm builder
+     */
+    public AnytimeSearch(
+            final StoppingCondition stoppingCondition,
+            final BiFunction<StoppingCondition, ImprovementListener<E>, SearchAlgorithm<E>> searches) {
+        this(stoppingCondition, searches, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new anytime search.
+     *
+     * @param stoppingCondition the condition determining when the search stops unless cancelled
+     * @param searches          builds the search from its stopping condition and the listener to
+     *                          report improvements to, e.g., by means of the algorithm builder
+     * @param executor          the executor to deliver improvements to the subscribers in
+     */
+    public AnytimeSearch(
+            final StoppingCondition stoppingCondition,
+            final BiFunction<StoppingCondition, ImprovementListener<E>, SearchAlgorithm<E>> searches,
+            final Executor executor) {
+        if (stoppingCondition == null || searches == null || executor == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        this.executor = executor;
+        this.search = searches.apply(new AnyOf(stoppingCondition, cancellation), this::publish);
+        if (search == null) {
+            throw new IllegalArgumentException("Search cannot be null");
+        }
+    }
+
+    /**
+     * Runs the search on the calling thread and completes all subscriptions once it has finished.
+     * An anytime search runs only once.
+     *
+     * @return the best solution found
+     */
+    public E run() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Search has already been started");
+        }
+
+        try {
+            return search.findSolution();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            finished = true;
+            deliveries.forEach(Delivery::signal);
+        }
+    }
+
+    /**
+     * Cancels the search, which then stops after at most one more fitness evaluation or batch of
+     * evaluations. If the search has not started yet, it does not run at all.
+     */
+    public void cancel() {
+        cancellation.cancel();
+    }
+
+    /**
+     * Tells whether the search has been cancelled.
+     *
+     * @return {@code true} if the search has been cancelled, {@code false} otherwise
+     */
+    public boolean isCancelled() {
+        return cancellation.isCancelled();
+    }
+
+    /**
+     * Returns the best solution found so far.
+     *
+     * @return the best solution, or {@code null} if the search has not found any yet
+     */
+    public Improvement<E> best() {
+        return best;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super Improvement<E>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        final Delivery delivery = new Delivery(subscriber);
+        deliveries.add(delivery);
+        delivery.signal();
+    }
+
+    /**
+     * Publishes a new best solution. Called by the thread running the search.
+     *
+     * @param solution the solution
+     * @param fitness  the fitness of the solution
+     */
+    private void publish(final E solution, final double fitness) {
+        best = new Improvement<>(solution, fitness, search.getProgress());
+        for (final Delivery delivery : deliveries) {
+            delivery.signal();
+        }
+    }
+
+    /**
+     * The subscription of a single subscriber. All signals to the subscriber are sent by a task in
+     * the executor, of which at most one runs at a time. Every change a subscriber might be
+     * interested in schedules that task, unless it is already scheduled, in which case the
+     * running task picks up the change before it ends.
+     */
+    private final class Delivery implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Improvement<E>> subscriber;
+
+        /**
+         * The number of improvements requested but not yet delivered.
+         */
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * The number of changes since the delivering task last looked.
+         */
+        private final AtomicInteger changes = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        /**
+         * The exception to signal for an invalid request, if any.
+         */
+        private volatile IllegalArgumentException invalidRequest;
+
+        /**
+         * Whether the subscriber has received the subscription, only accessed by the task.
+         */
+        private boolean subscribed;
+
+        /**
+         * The last improvement delivered, only accessed by the task.
+         */
+        private Improvement<E> delivered;
+
+        private Delivery(final Flow.Subscriber<? super Improvement<E>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Number of requested improvements must be positive");
+            } else {
+                demand.getAndUpdate(d -> Long.MAX_VALUE - d < n ? Long.MAX_VALUE : d + n);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            deliveries.remove(this);
+        }
+
+        /**
+         * Schedules the delivering task unless it is already scheduled.
+         */
+        private void signal() {
+            if (changes.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int seen = 1;
+            do {
+                try {
+                    deliver();
+                } catch (RuntimeException e) {
+                    // The subscriber broke the rules, so it does not receive any more signals.
+                    cancel();
+                }
+                seen = changes.addAndGet(-seen);
+            } while (seen != 0);
+        }
+
+        /**
+         * Sends the subscriber whatever signals are due.
+         */
+        private void deliver() {
+            if (!subscribed) {
+                subscribed = true;
+                subscriber.onSubscribe(this);
+            }
+            if (cancelled) {
+                return;
+            }
+            if (invalidRequest != null) {
+                cancel();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            // Read before the best solution, so that no improvement published before finishing is missed.
+            final boolean done = finished;
+            final Improvement<E> latest = best;
+            if (latest != delivered && demand.get() > 0) {
+                delivered = latest;
+                demand.getAndUpdate(d -> d == Long.MAX_VALUE ? d : d - 1);
+                subscriber.onNext(latest);
+            }
+
+            if (done && latest == delivered && !cancelled) {
+                cancel();
+                if (failure != null) {
+                    subscriber.onError(failure);
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.anytime;
+
+/**
+ * A new best solution found by a search.
+ *
+ * @param solution the solution
+ * @param fitness  the fitness of the solution, where higher values are better
+ * @param progress the fraction of the search budget consumed when the solution was found
+ * @param <E>      the type of the solution encoding
+ */
+public record Improvement<E>(E solution, double fitness, double progress) {
+}
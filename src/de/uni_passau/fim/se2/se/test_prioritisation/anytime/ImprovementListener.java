@@ -0,0 +1,42 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.anytime;
+
+/**
+ * Listens to the improvements of a single search. Search algorithms report every solution that is
+ * better than all solutions found before, right after notifying their stopping condition of it, so
+ * the solutions reported to a listener form the anytime course of the search.
+ * <p>
+ * The fitness values are reported as APLC values, i.e., higher is better, even for algorithms
+ * that minimise an energy. Listeners are called by the thread running the search, so they should
+ * return quickly.
+ *
+ * @param <E> the type of the solution encoding
+ */
+@FunctionalInterface
+public interface ImprovementListener<E> {
+
+    /**
+     * A listener that ignores all improvements, used unless the search runs in anytime mode.
+     * Search algorithms may skip preparing solutions for it.
+     */
+    ImprovementListener<?> DISABLED = (solution, fitness) -> {
+    };
+
+    /**
+     * Returns the listener that ignores all improvements.
+     *
+     * @param <E> the type of the solution encoding
+     * @return the listener {@link #DISABLED}
+     */
+    @SuppressWarnings("unchecked")
+    static <E> ImprovementListener<E> disabled() {
+        return (ImprovementListener<E>) DISABLED;
+    }
+
+    /**
+     * Reports a new best solution.
+     *
+     * @param solution the solution, which must not be modified afterwards
+     * @param fitness  the fitness of the solution
+     */
+    void improved(E solution, double fitness);
+}
@@ -0,0 +1,106 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules;
+
+/**
+ * An adaptive cooling schedule that steers the temperature towards a target acceptance rate of
+ * worsening neighbours, instead of prescribing the temperature itself. The target decreases
+ * geometrically from an initial to a final acceptance rate over the budget. Whenever the observed
+ * rate is above the target, the temperature decreases a little, otherwise it increases a little.
+ * Thus, the schedule adapts to the energy differences of the neighbourhood at hand, which change
+ * as the search approaches better solutions.
+ * <p>
+ * If the search rejects a number of neighbours in a row, it is considered frozen in a local
+ * optimum, and the temperature is reheated to escape from it.
+ */
+public class AdaptiveCooling implements CoolingSchedule {
+
+    /**
+     * The final acceptance rate used unless specified otherwise.
+     */
+    public static final double DEFAULT_FINAL_ACCEPTANCE = 0.01;
+
+    /**
+     * The weight of a worsening neighbour in the moving average of the acceptance rate, roughly
+     * the inverse of the number of neighbours the average covers.
+     */
+    private static final double SMOOTHING = 0.02;
+
+    /**
+     * The factor the temperature changes by per worsening neighbour.
+     */
+    private static final double ADJUSTMENT = 1.01;
+
+    /**
+     * The factor the temperature increases by when the search is frozen.
+     */
+    private static final double REHEATING = 2.0;
+
+    private final double initialAcceptance;
+    private final double finalAcceptance;
+
+    /**
+     * The number of neighbours rejected in a row after which the search is considered frozen.
+     */
+    private final int patience;
+
+    private double temperature;
+    private double targetAcceptance;
+
+    /**
+     * The moving average of the acceptance rate of worsening neighbours.
+     */
+    private double acceptanceRate;
+
+    /**
+     * The number of neighbours rejected since the last accepted one.
+     */
+    private int rejections;
+
+    /**
+     * Creates a new adaptive cooling schedule.
+     *
+     * @param initialAcceptance the target acceptance rate at the start of the search
+     * @param finalAcceptance   the target acceptance rate at the end of the search
+     * @param patience          the number of neighbours rejected in a row after which to reheat,
+     *                          e.g., the size of the neighbourhood
+     */
+    public AdaptiveCooling(final double initialAcceptance, final double finalAcceptance, final int patience) {
+        if (!(finalAcceptance > 0 && finalAcceptance <= initialAcceptance && initialAcceptance < 1)) {
+            throw new IllegalArgumentException("Acceptance rates must satisfy 0 < final <= initial < 1");
+        }
+        if (patience < 1) {
+            throw new IllegalArgumentException("Patience must be greater than 0");
+        }
+        this.initialAcceptance = initialAcceptance;
+        this.finalAcceptance = finalAcceptance;
+        this.patience = patience;
+    }
+
+    @Override
+    public void start(final double initialTemperature) {
+        temperature = initialTemperature;
+        targetAcceptance = initialAcceptance;
+        acceptanceRate = initialAcceptance;
+        rejections = 0;
+    }
+
+    @Override
+    public double temperature(final double progress) {
+        targetAcceptance = initialAcceptance * Math.pow(finalAcceptance / initialAcceptance, progress);
+        return temperature;
+    }
+
+    @Override
+    public void notifyMove(final double delta, final boolean accepted) {
+        if (delta > 0) {
+            acceptanceRate += SMOOTHING * ((accepted ? 1 : 0) - acceptanceRate);
+            temperature = acceptanceRate > targetAcceptance ? temperature / ADJUSTMENT : temperature * ADJUSTMENT;
+        }
+
+        if (accepted) {
+            rejections = 0;
+        } else if (++rejections >= patience) {
+            temperature *= REHEATING;
+            rejections = 0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules;
+
+/**
+ * A cooling schedule determines the temperature of a simulated annealing search, i.e., how likely
+ * the search accepts a neighbour that is worse than the current solution. A high temperature lets
+ * the search explore the search space, a low temperature lets it descend into a local optimum.
+ * <p>
+ * Schedules are driven by the fraction of the search budget already consumed, so that they cool
+ * down over the whole budget however large it is. Instances keep the state of a single search and
+ * must not be shared between searches.
+ */
+public interface CoolingSchedule {
+
+    /**
+     * Prepares this schedule for a new search.
+     *
+     * @param initialTemperature the temperature at the start of the search
+     */
+    void start(double initialTemperature);
+
+    /**
+     * Returns the temperature for the next step of the search.
+     *
+     * @param progress the fraction of the search budget already consumed, in the interval [0, 1]
+     * @return the temperature, a positive number
+     */
+    double temperature(double progress);
+
+    /**
+     * Notifies this schedule of a step of the search. Schedules adapting to the course of the
+     * search override this method, the default implementation does nothing.
+     *
+     * @param delta    the energy of the neighbour minus the energy of the current solution
+     * @param accepted whether the search moved to the neighbour
+     */
+    default void notifyMove(final double delta, final boolean accepted) {
+    }
+}
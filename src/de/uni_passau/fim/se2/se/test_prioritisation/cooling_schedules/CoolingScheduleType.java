@@ -0,0 +1,22 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules;
+
+/**
+ * Enum specifying the available cooling schedules for simulated annealing.
+ */
+public enum CoolingScheduleType {
+
+    /**
+     * Cools down exponentially over the budget, see {@link GeometricCooling}.
+     */
+    GEOMETRIC,
+
+    /**
+     * Cools down quickly at first and slowly later on, see {@link LundyMeesCooling}.
+     */
+    LUNDY_MEES,
+
+    /**
+     * Steers the temperature towards a decreasing acceptance rate, see {@link AdaptiveCooling}.
+     */
+    ADAPTIVE
+}
@@ -0,0 +1,47 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules;
+
+/**
+ * The geometric cooling schedule, scaled to the search budget. The temperature decreases by the
+ * same factor per step, so that it reaches a fixed fraction of the initial temperature when the
+ * budget is exhausted: {@code T(p) = T0 * r^p} for progress {@code p} and final ratio {@code r}.
+ */
+public class GeometricCooling implements CoolingSchedule {
+
+    /**
+     * The final ratio used unless specified otherwise.
+     */
+    public static final double DEFAULT_FINAL_RATIO = 0.001;
+
+    /**
+     * The final temperature relative to the initial one.
+     */
+    private final double finalRatio;
+
+    /**
+     * The temperature at the start of the current search.
+     */
+    private double initialTemperature;
+
+    /**
+     * Creates a new geometric cooling schedule.
+     *
+     * @param finalRatio the temperature at the end of the search relative to the initial one, in
+     *                   the interval (0, 1]
+     */
+    public GeometricCooling(final double finalRatio) {
+        if (!(finalRatio > 0 && finalRatio <= 1)) {
+            throw new IllegalArgumentException("Final ratio must be in (0, 1]");
+        }
+        this.finalRatio = finalRatio;
+    }
+
+    @Override
+    public void start(final double initialTemperature) {
+        this.initialTemperature = initialTemperature;
+    }
+
+    @Override
+    public double temperature(final double progress) {
+        return initialTemperature * Math.pow(finalRatio, progress);
+    }
+}
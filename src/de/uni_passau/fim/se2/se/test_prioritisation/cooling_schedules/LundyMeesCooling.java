@@ -0,0 +1,56 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules;
+
+/**
+ * The cooling schedule of Lundy and Mees, scaled to the search budget. Every step updates the
+ * temperature to {@code T / (1 + beta * T)}, i.e., the inverse temperature grows linearly. Thus,
+ * the search cools down quickly while it is hot and spends most of the budget at low
+ * temperatures. The constant {@code beta} is chosen such that the temperature reaches a fixed
+ * fraction of the initial temperature when the budget is exhausted.
+ */
+public class LundyMeesCooling implements CoolingSchedule {
+
+    /**
+     * The final ratio used unless specified otherwise.
+     */
+    public static final double DEFAULT_FINAL_RATIO = 0.01;
+
+    /**
+     * The final temperature relative to the initial one.
+     */
+    private final double finalRatio;
+
+    /**
+     * The inverse temperature at the start of the current search.
+     */
+    private double initialBeta;
+
+    /**
+     * The growth of the inverse temperature from the start to the end of the current search.
+     */
+    private double betaGrowth;
+
+    /**
+     * Creates a new Lundy-Mees cooling schedule.
+     *
+     * @param finalRatio the temperature at the end of the search relative to the initial one, in
+     *                   the interval (0, 1]
+     */
+    public LundyMeesCooling(final double finalRatio) {
+        if (!(finalRatio > 0 && finalRatio <= 1)) {
+            throw new IllegalArgumentException("Final ratio must be in (0, 1]");
+        }
+        this.finalRatio = finalRatio;
+    }
+
+    @Override
+    public void start(final double initialTemperature) {
+        initialBeta = 1 / initialTemperature;
+        betaGrowth = initialBeta / finalRatio - initialBeta;
+    }
+
+    @Override
+    public double temperature(final double progress) {
+        // The closed form of the recurrence, so that the steps need not be counted.
+        return 1 / (initialBeta + progress * betaGrowth);
+    }
+}
@@ -0,0 +1,11 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.crossover;
+
+/**
+ * Enum specifying the available crossover operators for test orders.
+ */
+public enum CrossoverType {
+    ORDER,
+    PARTIALLY_MAPPED,
+    CYCLE,
+    EDGE_RECOMBINATION
+}
@@ -0,0 +1,69 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.crossover;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+
+import java.util.Arrays;
+
+/**
+ * The cycle crossover (CX). Instances keep scratch buffers between calls and must not be shared
+ * between threads.
+ */
+public class CycleCrossover implements Crossover<TestOrder> {
+
+    /**
+     * Scratch buffer holding the index of every test in the first parent.
+     */
+    private int[] indexInParent1 = new int[0];
+
+    /**
+     * Scratch buffer marking the positions already assigned to a cycle.
+     */
+    private boolean[] visited = new boolean[0];
+
+    /**
+     * Combines two parent encodings to create a new offspring encoding using the cycle crossover
+     * operation. The positions are partitioned into cycles: starting from a position, the test of
+     * the second parent at that position is looked up in the first parent, whose position is the
+     * next one of the cycle. The offspring takes the tests of the first parent on every other
+     * cycle, and those of the second parent on the remaining ones, so that every test keeps the
+     * position it has in one of the parents.
+     *
+     * @param parent1 the first parent encoding
+     * @param parent2 the second parent encoding
+     * @return the offspring encoding
+     */
+    @Override
+    public TestOrder apply(final TestOrder parent1, final TestOrder parent2) {
+        final int size = parent1.size();
+        final int[] positions1 = parent1.getPositions();
+        final int[] positions2 = parent2.getPositions();
+
+        if (indexInParent1.length < size) {
+            indexInParent1 = new int[size];
+            visited = new boolean[size];
+        } else {
+            Arrays.fill(visited, 0, size, false);
+        }
+        for (int i = 0; i < size; i++) {
+            indexInParent1[positions1[i]] = i;
+        }
+
+        final int[] offspringPositions = new int[size];
+        boolean fromParent1 = true;
+        for (int start = 0; start < size; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            final int[] source = fromParent1 ? positions1 : positions2;
+            int index = start;
+            do {
+                visited[index] = true;
+                offspringPositions[index] = source[index];
+                index = indexInParent1[positions2[index]];
+            } while (index != start);
+            fromParent1 = !fromParent1;
+        }
+
+        return TestOrder.trusted(parent1.getMutation(), offspringPositions);
+    }
+}
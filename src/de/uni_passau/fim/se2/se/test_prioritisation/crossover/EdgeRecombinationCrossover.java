@@ -0,0 +1,184 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.crossover;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The edge recombination crossover (ERX). Instances keep scratch buffers between calls and must
+ * not be shared between threads.
+ */
+public class EdgeRecombinationCrossover implements Crossover<TestOrder> {
+
+    /**
+     * The maximum number of distinct neighbours of a test in two parents.
+     */
+    private static final int MAX_NEIGHBOURS = 4;
+
+    /**
+     * The internal source of randomness.
+     */
+    private final RandomGenerator random;
+
+    /**
+     * Scratch buffer holding the neighbours of every test not placed yet, {@link #MAX_NEIGHBOURS}
+     * slots per test.
+     */
+    private int[] neighbours = new int[0];
+
+    /**
+     * Scratch buffer holding the number of neighbours of every test not placed yet.
+     */
+    private int[] degree = new int[0];
+
+    /**
+     * Scratch buffer holding the tests not placed yet, in arbitrary order.
+     */
+    private int[] unplaced = new int[0];
+
+    /**
+     * Scratch buffer holding the index of every test in {@link #unplaced}, or -1 once placed.
+     */
+    private int[] indexInUnplaced = new int[0];
+
+    /**
+     * Creates a new edge recombination crossover operator.
+     *
+     * @param random the internal source of randomness
+     */
+    public EdgeRecombinationCrossover(final RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Combines two parent encodings to create a new offspring encoding using the edge
+     * recombination operation. The offspring is built from the union of the adjacencies of both
+     * parents: it starts with the first test of a random parent, and every next test is the
+     * neighbour of the previous one that has the fewest neighbours left itself, with ties broken
+     * at random. Only if the previous test has no neighbours left, a random remaining test is
+     * chosen. Thus, the offspring preserves most of the adjacencies of its parents, i.e., which
+     * tests run right after each other.
+     *
+     * @param parent1 the first parent encoding
+     * @param parent2 the second parent encoding
+     * @return the offspring encoding
+     */
+    @Override
+    public TestOrder apply(final TestOrder parent1, final TestOrder parent2) {
+        final int size = parent1.size();
+        final int[] positions1 = parent1.getPositions();
+        final int[] positions2 = parent2.getPositions();
+
+        if (degree.length < size) {
+            neighbours = new int[MAX_NEIGHBOURS * size];
+            degree = new int[size];
+            unplaced = new int[size];
+            indexInUnplaced = new int[size];
+        }
+        for (int test = 0; test < size; test++) {
+            degree[test] = 0;
+            unplaced[test] = test;
+            indexInUnplaced[test] = test;
+        }
+        addEdges(positions1);
+        addEdges(positions2);
+
+        final int[] offspringPositions = new int[size];
+        int remaining = size;
+        int current = random.nextBoolean() ? positions1[0] : positions2[0];
+        for (int i = 0; i < size; i++) {
+            offspringPositions[i] = current;
+            remaining = place(current, remaining);
+            if (remaining == 0) {
+                break;
+            }
+            current = next(current, remaining);
+        }
+
+        return TestOrder.trusted(parent1.getMutation(), offspringPositions);
+    }
+
+    /**
+     * Adds the adjacencies of the given order to the neighbour lists.
+     *
+     * @param positions the order
+     */
+    private void addEdges(final int[] positions) {
+        for (int i = 1; i < positions.length; i++) {
+            addNeighbour(positions[i - 1], positions[i]);
+            addNeighbour(positions[i], positions[i - 1]);
+        }
+    }
+
+    /**
+     * Adds a neighbour to the list of the given test, unless it is already contained.
+     *
+     * @param test      the test
+     * @param neighbour the neighbour to add
+     */
+    private void addNeighbour(final int test, final int neighbour) {
+        final int offset = MAX_NEIGHBOURS * test;
+        for (int k = 0; k < degree[test]; k++) {
+            if (neighbours[offset + k] == neighbour) {
+                return;
+            }
+        }
+        neighbours[offset + degree[test]++] = neighbour;
+    }
+
+    /**
+     * Marks the given test as placed and removes it from the neighbour lists of its neighbours.
+     *
+     * @param test      the test to place
+     * @param remaining the number of tests not placed yet
+     * @return the number of tests not placed yet after placing the given one
+     */
+    private int place(final int test, final int remaining) {
+        final int index = indexInUnplaced[test];
+        final int last = unplaced[remaining - 1];
+        unplaced[index] = last;
+        indexInUnplaced[last] = index;
+        indexInUnplaced[test] = -1;
+
+        final int offset = MAX_NEIGHBOURS * test;
+        for (int k = 0; k < degree[test]; k++) {
+            final int neighbour = neighbours[offset + k];
+            final int neighbourOffset = MAX_NEIGHBOURS * neighbour;
+            for (int j = 0; j < degree[neighbour]; j++) {
+                if (neighbours[neighbourOffset + j] == test) {
+                    neighbours[neighbourOffset + j] = neighbours[neighbourOffset + --degree[neighbour]];
+                    break;
+                }
+            }
+        }
+        return remaining - 1;
+    }
+
+    /**
+     * Chooses the test to place after the given one.
+     *
+     * @param test      the test placed last
+     * @param remaining the number of tests not placed yet
+     * @return the next test
+     */
+    private int next(final int test, final int remaining) {
+        final int offset = MAX_NEIGHBOURS * test;
+        if (degree[test] == 0) {
+            return unplaced[random.nextInt(remaining)];
+        }
+
+        int best = -1;
+        int ties = 0;
+        for (int k = 0; k < degree[test]; k++) {
+            final int candidate = neighbours[offset + k];
+            if (best < 0 || degree[candidate] < degree[best]) {
+                best = candidate;
+                ties = 1;
+            } else if (degree[candidate] == degree[best] && random.nextInt(++ties) == 0) {
+                // Reservoir sampling picks every tied candidate with equal probability.
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
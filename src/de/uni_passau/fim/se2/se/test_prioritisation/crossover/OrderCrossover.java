@@ -3,20 +3,30 @@ package de.uni_passau.fim.se2.se.test_prioritisation.crossover;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
+/**
+ * The order crossover (OX). Instances keep a scratch buffer between calls and must not be shared
+ * between threads.
+ */
 public class OrderCrossover implements Crossover<TestOrder> {
 
     /**
      * The internal source of randomness.
      */
-    private final Random random;
+    private final RandomGenerator random;
+
+    /**
+     * Scratch bitset marking the tests already placed in the offspring.
+     */
+    private long[] placed = new long[0];
 
     /**
      * Creates a new order crossover operator.
      *
      * @param random the internal source of randomness
      */
-    public OrderCrossover(final Random random) {
+    public OrderCrossover(final RandomGenerator random) {
         this.random = random;
     }
 
@@ -34,6 +44,8 @@ public class OrderCrossover implements Crossover<TestOrder> {
     @Override
     public TestOrder apply(TestOrder parent1, TestOrder parent2) {
         int size = parent1.size();
+        final int[] positions1 = parent1.getPositions();
+        final int[] positions2 = parent2.getPositions();
 
         // Randomly select two crossover points
         int crossoverPoint1 = random.nextInt(size);
@@ -48,29 +60,47 @@ public class OrderCrossover implements Crossover<TestOrder> {
 
         // Create an offspring array to store the new test order
         int[] offspringPositions = new int[size];
-        Arrays.fill(offspringPositions, -1); // Fill with invalid values initially
+        final long[] placed = clearedScratch(size);
 
         // Copy the section between crossover points from the first parent
         for (int i = crossoverPoint1; i <= crossoverPoint2; i++) {
-            offspringPositions[i] = parent1.getPositions()[i];
+            final int test = positions1[i];
+            offspringPositions[i] = test;
+            placed[test >>> 6] |= 1L << test;
         }
 
         // Fill the remaining spots from the second parent, preserving their order
         int offspringIndex = 0;
         for (int i = 0; i < size; i++) {
-            int test = parent2.getPositions()[i];
+            int test = positions2[i];
             // If the test is already present, skip it
-            if (Arrays.stream(offspringPositions).anyMatch(x -> x == test)) {
+            if ((placed[test >>> 6] & (1L << test)) != 0) {
                 continue;
             }
-            // Find the next available spot in the offspring
-            while (offspringPositions[offspringIndex] != -1) {
-                offspringIndex++;
+            // Skip the section copied from the first parent
+            if (offspringIndex == crossoverPoint1) {
+                offspringIndex = crossoverPoint2 + 1;
             }
-            offspringPositions[offspringIndex] = test;
+            offspringPositions[offspringIndex++] = test;
         }
 
         // Return the new offspring encoding
-        return new TestOrder(parent1.getMutation(), offspringPositions);
+        return TestOrder.trusted(parent1.getMutation(), offspringPositions);
+    }
+
+    /**
+     * Returns the scratch bitset with all bits for tests below {@code size} cleared.
+     *
+     * @param size the number of tests
+     * @return the scratch bitset
+     */
+    private long[] clearedScratch(final int size) {
+        final int words = (size + 63) >>> 6;
+        if (placed.length < words) {
+            placed = new long[words];
+        } else {
+            Arrays.fill(placed, 0, words, 0L);
+        }
+        return placed;
     }
 }
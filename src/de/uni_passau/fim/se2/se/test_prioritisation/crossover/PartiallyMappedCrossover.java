@@ -0,0 +1,88 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.crossover;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The partially mapped crossover (PMX). Instances keep a scratch buffer between calls and must not
+ * be shared between threads.
+ */
+public class PartiallyMappedCrossover implements Crossover<TestOrder> {
+
+    /**
+     * The internal source of randomness.
+     */
+    private final RandomGenerator random;
+
+    /**
+     * Scratch buffer holding the index of every test in the first parent.
+     */
+    private int[] indexInParent1 = new int[0];
+
+    /**
+     * Creates a new partially mapped crossover operator.
+     *
+     * @param random the internal source of randomness
+     */
+    public PartiallyMappedCrossover(final RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Combines two parent encodings to create a new offspring encoding using the partially mapped
+     * crossover operation. The section between two random indices is copied from the first parent,
+     * and every other position takes the test of the second parent at the same position. If that
+     * test already occurs in the copied section, the mapping between the sections of both parents
+     * is followed until a test outside the section is found. Thus, the offspring keeps the absolute
+     * positions of most tests of both parents.
+     *
+     * @param parent1 the first parent encoding
+     * @param parent2 the second parent encoding
+     * @return the offspring encoding
+     */
+    @Override
+    public TestOrder apply(final TestOrder parent1, final TestOrder parent2) {
+        final int size = parent1.size();
+        final int[] positions1 = parent1.getPositions();
+        final int[] positions2 = parent2.getPositions();
+
+        // Randomly select two crossover points
+        int crossoverPoint1 = random.nextInt(size);
+        int crossoverPoint2 = random.nextInt(size);
+        if (crossoverPoint1 > crossoverPoint2) {
+            final int temp = crossoverPoint1;
+            crossoverPoint1 = crossoverPoint2;
+            crossoverPoint2 = temp;
+        }
+
+        if (indexInParent1.length < size) {
+            indexInParent1 = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            indexInParent1[positions1[i]] = i;
+        }
+
+        final int[] offspringPositions = new int[size];
+        System.arraycopy(positions1, crossoverPoint1, offspringPositions, crossoverPoint1,
+                crossoverPoint2 - crossoverPoint1 + 1);
+
+        // Every mapping chain passes through distinct positions of the section, so filling all
+        // remaining positions takes linear time in total.
+        for (int i = 0; i < size; i++) {
+            if (i == crossoverPoint1) {
+                i = crossoverPoint2;
+                continue;
+            }
+            int test = positions2[i];
+            int index = indexInParent1[test];
+            while (index >= crossoverPoint1 && index <= crossoverPoint2) {
+                test = positions2[index];
+                index = indexInParent1[test];
+            }
+            offspringPositions[i] = test;
+        }
+
+        return TestOrder.trusted(parent1.getMutation(), offspringPositions);
+    }
+}
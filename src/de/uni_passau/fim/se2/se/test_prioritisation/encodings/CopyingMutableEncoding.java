@@ -0,0 +1,53 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
+
+/**
+ * Adapts an encoding that cannot be transformed in place to {@link MutableEncoding}: every
+ * mutation creates a new encoding, and reverting returns to the one at the last commit.
+ *
+ * @param <E> the type of the solution encoding
+ */
+final class CopyingMutableEncoding<E extends Encoding<E>> implements MutableEncoding<E> {
+
+    /**
+     * The solution at the last commit.
+     */
+    private E committed;
+
+    /**
+     * The current solution.
+     */
+    private E current;
+
+    CopyingMutableEncoding(final E encoding) {
+        this.committed = encoding;
+        this.current = encoding;
+    }
+
+    @Override
+    public E current() {
+        return current;
+    }
+
+    /**
+     * Returns the current solution, which is never mutated.
+     */
+    @Override
+    public E snapshot() {
+        return current;
+    }
+
+    @Override
+    public void mutateInPlace() {
+        current = current.getMutation().apply(current);
+    }
+
+    @Override
+    public void revert() {
+        current = committed;
+    }
+
+    @Override
+    public void commit() {
+        committed = current;
+    }
+}
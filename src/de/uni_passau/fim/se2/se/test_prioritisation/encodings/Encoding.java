@@ -3,7 +3,7 @@ package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
 import de.uni_passau.fim.se2.se.test_prioritisation.mutations.Mutation;
 import de.uni_passau.fim.se2.se.test_prioritisation.utils.SelfTyped;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 import static java.util.Objects.requireNonNull;
 
@@ -45,7 +45,7 @@ public abstract class Encoding<E extends Encoding<E>> implements SelfTyped<E> {
      *
      * @return the mutated solution encoding
      */
-    public final E mutate(Random random, int degreesOfFreedom) {
+    public final E mutate(RandomGenerator random, int degreesOfFreedom) {
         return mutation.apply(self());
     }
 
@@ -56,6 +56,18 @@ public abstract class Encoding<E extends Encoding<E>> implements SelfTyped<E> {
      */
     public abstract E deepCopy();
 
+    /**
+     * Creates a copy of the current solution encoding for local search algorithms to move through
+     * the search space with. Subclasses whose mutation can be applied in place should override
+     * this method, so that steps do not allocate a new encoding. By default, every mutation
+     * creates a new encoding.
+     *
+     * @return a mutable copy of the current solution encoding
+     */
+    public MutableEncoding<E> mutableCopy() {
+        return new CopyingMutableEncoding<>(self());
+    }
+
     public Mutation<E> getMutation() {
         return mutation;
     }
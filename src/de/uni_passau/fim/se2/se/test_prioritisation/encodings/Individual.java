@@ -0,0 +1,14 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
+
+/**
+ * An individual of a population: a solution encoding together with its fitness, as computed by
+ * the fitness function of the search algorithm when the individual was evaluated. Keeping the two
+ * together lets operators such as parent selection compare individuals without evaluating them
+ * again.
+ *
+ * @param encoding the solution encoding
+ * @param fitness  the fitness of the encoding, where higher values are better
+ * @param <E>      the type of the solution encoding
+ */
+public record Individual<E>(E encoding, double fitness) {
+}
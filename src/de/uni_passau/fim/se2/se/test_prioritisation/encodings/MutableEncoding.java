@@ -0,0 +1,47 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
+
+/**
+ * A solution encoding that local search algorithms can move through the search space with, one
+ * elementary transformation at a time, see {@link Encoding#mutableCopy()}.
+ * <p>
+ * Mutations are recorded in an undo log until they are committed, so that a rejected neighbour
+ * can be turned back into the current solution by reverting the log. Encodings that support it
+ * are transformed in place, in which case a step allocates nothing and reverting only touches the
+ * elements the mutations moved.
+ *
+ * @param <E> the type of the solution encoding
+ */
+public interface MutableEncoding<E extends Encoding<E>> {
+
+    /**
+     * Returns the current solution. If the encoding is transformed in place, the returned object
+     * keeps changing with every mutation, so it must not be remembered; use {@link #snapshot()}
+     * instead.
+     *
+     * @return the current solution
+     */
+    E current();
+
+    /**
+     * Returns a copy of the current solution that is not affected by later mutations.
+     *
+     * @return a snapshot of the current solution
+     */
+    E snapshot();
+
+    /**
+     * Performs an elementary transformation of the current solution and records it in the undo
+     * log.
+     */
+    void mutateInPlace();
+
+    /**
+     * Undoes all mutations recorded since the last commit, in reverse order.
+     */
+    void revert();
+
+    /**
+     * Makes all mutations recorded so far permanent by clearing the undo log.
+     */
+    void commit();
+}
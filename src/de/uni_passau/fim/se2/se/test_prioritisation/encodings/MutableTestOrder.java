@@ -0,0 +1,171 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.mutations.InPlaceMutation;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A test order whose positions are changed in place by its mutation, see {@link MutableEncoding}.
+ * It is its own current solution.
+ * <p>
+ * Every in-place transformation moves a single test from one position to another, shifting the
+ * tests in between by one. The undo log stores the source and target position of every move, so
+ * undoing a move costs as much as performing it. Copies made with {@link #deepCopy()} are plain,
+ * immutable test orders.
+ * <p>
+ * Once its {@link #hash()} has been requested, e.g., by a fitness cache, every move also updates
+ * the hash incrementally, and reverting restores the hash of the last commit in constant time.
+ * Until then, moves do not pay for hashing.
+ */
+public final class MutableTestOrder extends TestOrder implements MutableEncoding<TestOrder> {
+
+    /**
+     * The source and target positions of the moves since the last commit, in pairs.
+     */
+    private int[] undoLog;
+
+    /**
+     * The number of entries in the undo log, i.e., twice the number of recorded moves.
+     */
+    private int logged;
+
+    /**
+     * Whether the hashes are maintained, which they are from the first request on.
+     */
+    private boolean hashed;
+
+    /**
+     * The hash of the current ordering, if {@link #hashed}.
+     */
+    private long currentHash;
+
+    /**
+     * The hash of the ordering at the last commit, if {@link #hashed}.
+     */
+    private long committedHash;
+
+    /**
+     * Creates a mutable copy of the given test order. The mutation of the test order must support
+     * in-place application.
+     *
+     * @param testOrder the test order to copy
+     */
+    public MutableTestOrder(final TestOrder testOrder) {
+        super(testOrder.getMutation(), testOrder.getPositions());
+        if (!(getMutation() instanceof InPlaceMutation)) {
+            throw new IllegalArgumentException("Mutation cannot be applied in place");
+        }
+        this.undoLog = new int[16];
+        this.logged = 0;
+    }
+
+    @Override
+    public TestOrder current() {
+        return this;
+    }
+
+    @Override
+    public TestOrder snapshot() {
+        return deepCopy();
+    }
+
+    @Override
+    public void mutateInPlace() {
+        ((InPlaceMutation) getMutation()).applyInPlace(this);
+    }
+
+    /**
+     * Shifts the test at the given index to the beginning of the order, and records the move.
+     *
+     * @param index the index of the test to shift
+     */
+    public void shiftToBeginning(final int index) {
+        move(index, 0);
+    }
+
+    /**
+     * Moves the test at index {@code from} to index {@code to}, shifting the tests in between by
+     * one, and records the move.
+     *
+     * @param from the index of the test to move
+     * @param to   the index to move the test to
+     */
+    public void move(final int from, final int to) {
+        Objects.checkIndex(from, size());
+        Objects.checkIndex(to, size());
+        if (hashed) {
+            currentHash = ZobristHash.move(currentHash, getPositions(), from, to);
+        }
+        shift(from, to);
+
+        if (logged == undoLog.length) {
+            undoLog = Arrays.copyOf(undoLog, 2 * logged);
+        }
+        undoLog[logged++] = from;
+        undoLog[logged++] = to;
+    }
+
+    @Override
+    public void revert() {
+        while (logged > 0) {
+            final int to = undoLog[--logged];
+            final int from = undoLog[--logged];
+            shift(to, from);
+        }
+        currentHash = committedHash;
+    }
+
+    @Override
+    public void commit() {
+        logged = 0;
+        committedHash = currentHash;
+    }
+
+    @Override
+    public long hash() {
+        if (!hashed) {
+            startHashing();
+        }
+        return currentHash;
+    }
+
+    @Override
+    public boolean hasHash() {
+        return hashed;
+    }
+
+    /**
+     * Hashes the ordering at the last commit from scratch, and replays the moves since then to
+     * update the hash incrementally, so that reverting them restores the committed hash.
+     */
+    private void startHashing() {
+        final int moves = logged;
+        revert();
+        committedHash = ZobristHash.of(getPositions());
+        currentHash = committedHash;
+        hashed = true;
+
+        // The undo log still holds the reverted moves, which are recorded again in the same order.
+        for (int i = 0; i < moves; i += 2) {
+            move(undoLog[i], undoLog[i + 1]);
+        }
+    }
+
+    /**
+     * Moves the test at index {@code from} to index {@code to} without recording the move.
+     *
+     * @param from the index of the test to move
+     * @param to   the index to move the test to
+     */
+    private void shift(final int from, final int to) {
+        final int[] positions = getPositions();
+        final int test = positions[from];
+        if (from > to) {
+            System.arraycopy(positions, to, positions, to + 1, from - to);
+        } else {
+            System.arraycopy(positions, from + 1, positions, from, to - from);
+        }
+        positions[to] = test;
+    }
+}
@@ -1,5 +1,6 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.mutations.InPlaceMutation;
 import de.uni_passau.fim.se2.se.test_prioritisation.mutations.Mutation;
 
 import java.util.Arrays;
@@ -11,6 +12,12 @@ public class TestOrder extends Encoding<TestOrder> {
      */
     private final int[] positions;
 
+    /**
+     * The {@link ZobristHash} of the ordering, or 0 if it has not been computed yet. Volatile, so
+     * that test orders shared between threads never see a torn value.
+     */
+    private volatile long hash;
+
     /**
      * Creates a new test order with the given mutation and test case ordering.
      *
@@ -18,11 +25,62 @@ public class TestOrder extends Encoding<TestOrder> {
      * @param positions the test case ordering
      */
     public TestOrder(Mutation<TestOrder> mutation, int[] positions) {
+        this(mutation, positions, false, 0);
+    }
+
+    /**
+     * Creates a new test order with the given mutation and test case ordering, which is either
+     * validated and copied, or trusted and taken over as it is.
+     *
+     * @param mutation  the mutation to be used with this encoding
+     * @param positions the test case ordering
+     * @param trusted   whether the ordering is known to be valid and owned by no one else
+     * @param hash      the hash of the ordering, or 0 if it is unknown
+     */
+    private TestOrder(final Mutation<TestOrder> mutation, final int[] positions, final boolean trusted,
+                      final long hash) {
         super(mutation);
-        if (!isValid(positions)) {
-            throw new IllegalArgumentException("Invalid test order.");
+        if (trusted) {
+            assert isValid(positions) : "Invalid test order.";
+            this.positions = positions;
+        } else {
+            if (!isValid(positions)) {
+                throw new IllegalArgumentException("Invalid test order.");
+            }
+            this.positions = positions.clone();
         }
-        this.positions = positions.clone();
+        assert hash == 0 || hash == ZobristHash.of(this.positions) : "Wrong hash.";
+        this.hash = hash;
+    }
+
+    /**
+     * Creates a new test order that takes ownership of the given test case ordering, without
+     * copying or validating it. Meant for operators that construct a fresh permutation, such as
+     * generators, mutations and crossovers, for which the copy and the validation done by the
+     * public constructor are a considerable share of their cost. The caller must guarantee that
+     * the ordering is a valid permutation and must not modify the array afterwards. The ordering
+     * is validated if assertions are enabled.
+     *
+     * @param mutation  the mutation to be used with this encoding
+     * @param positions the test case ordering, which must be a valid permutation
+     * @return the new test order
+     */
+    public static TestOrder trusted(final Mutation<TestOrder> mutation, final int[] positions) {
+        return new TestOrder(mutation, positions, true, 0);
+    }
+
+    /**
+     * Creates a new test order like {@link #trusted(Mutation, int[])}, whose hash is already
+     * known, e.g., because it was updated incrementally from the hash of the order it was derived
+     * from. The hash is verified if assertions are enabled.
+     *
+     * @param mutation  the mutation to be used with this encoding
+     * @param positions the test case ordering, which must be a valid permutation
+     * @param hash      the {@link ZobristHash} of the ordering, or 0 if it is unknown
+     * @return the new test order
+     */
+    public static TestOrder trusted(final Mutation<TestOrder> mutation, final int[] positions, final long hash) {
+        return new TestOrder(mutation, positions, true, hash);
     }
 
     /**
@@ -51,7 +109,21 @@ public class TestOrder extends Encoding<TestOrder> {
      */
     @Override
     public TestOrder deepCopy() {
-        return new TestOrder(getMutation(), positions.clone());
+        return trusted(getMutation(), positions.clone(), hasHash() ? hash() : 0);
+    }
+
+    /**
+     * Creates a {@link MutableTestOrder} copy of this test order if its mutation can be applied
+     * in place.
+     *
+     * @return the mutable copy
+     */
+    @Override
+    public MutableEncoding<TestOrder> mutableCopy() {
+        if (getMutation() instanceof InPlaceMutation) {
+            return new MutableTestOrder(this);
+        }
+        return super.mutableCopy();
     }
 
     /**
@@ -72,6 +144,31 @@ public class TestOrder extends Encoding<TestOrder> {
         return positions;
     }
 
+    /**
+     * Returns the {@link ZobristHash} of this test order. It is computed on first use, unless it was
+     * carried over from the order this one was derived from.
+     *
+     * @return the hash of the ordering
+     */
+    public long hash() {
+        long h = hash;
+        if (h == 0) {
+            h = ZobristHash.of(positions);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Tells whether the hash of this test order is known already, so that the hash of a derived
+     * order can be updated incrementally instead of being computed from scratch.
+     *
+     * @return {@code true} if {@link #hash()} takes constant time, {@code false} otherwise
+     */
+    public boolean hasHash() {
+        return hash != 0;
+    }
+
     @Override
     public TestOrder self() {
         return this;
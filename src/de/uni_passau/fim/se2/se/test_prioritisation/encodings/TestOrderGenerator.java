@@ -2,11 +2,11 @@ package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
 
 import de.uni_passau.fim.se2.se.test_prioritisation.mutations.Mutation;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class TestOrderGenerator implements EncodingGenerator<TestOrder> {
 
-    private final Random random;
+    private final RandomGenerator random;
     private final Mutation<TestOrder> mutation;
     private final int testCases;
 
@@ -17,7 +17,7 @@ public class TestOrderGenerator implements EncodingGenerator<TestOrder> {
      * @param mutation  the elementary transformation that the generated orderings will use
      * @param testCases the number of test cases in the ordering
      */
-    public TestOrderGenerator(final Random random, final Mutation<TestOrder> mutation, final int testCases) {
+    public TestOrderGenerator(final RandomGenerator random, final Mutation<TestOrder> mutation, final int testCases) {
         this.random = random;
         this.mutation = mutation;
         this.testCases = testCases;
@@ -43,6 +43,6 @@ public class TestOrderGenerator implements EncodingGenerator<TestOrder> {
             randomOrder[j] = temp;
         }
 
-        return new TestOrder(mutation, randomOrder);
+        return TestOrder.trusted(mutation, randomOrder);
     }
 }
@@ -0,0 +1,93 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.encodings;
+
+/**
+ * Zobrist hashing of test orders. The hash of a test order is the XOR of one random key per
+ * (index, test) pair of the order. Since XOR is its own inverse, the hash can be updated when a few
+ * entries of an order change by XOR-ing out the keys of the old entries and XOR-ing in the keys of
+ * the new ones, without rehashing the whole order.
+ * <p>
+ * Instead of a table of {@code n * n} random keys, every key is derived from its index and test by
+ * a SplitMix64 finaliser. This keeps the memory footprint constant regardless of the size of the
+ * test suite, while keys still behave like independent random numbers.
+ */
+public final class ZobristHash {
+
+    /**
+     * Arbitrary seed mixed into every key.
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private ZobristHash() {
+        // private constructor to prevent instantiation.
+    }
+
+    /**
+     * Returns the random key for the given test being at the given index of a test order.
+     *
+     * @param index the index in the test order
+     * @param test  the test at that index
+     * @return the key
+     */
+    public static long key(final int index, final int test) {
+        long z = SEED + (((long) index << 32) | (test & 0xFFFFFFFFL)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Computes the hash of the given test order from scratch.
+     *
+     * @param positions the test order
+     * @return the hash of the order
+     */
+    public static long of(final int[] positions) {
+        long hash = 0;
+        for (int i = 0; i < positions.length; i++) {
+            hash ^= key(i, positions[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Updates the hash of a test order after the test at index {@code from} was moved to index
+     * {@code to}, shifting the tests in between by one, as done by
+     * {@link MutableTestOrder#move(int, int)}. Only the entries between the two indices change, so
+     * this takes {@code O(|from - to|)} time.
+     *
+     * @param hash      the hash of the order before the move
+     * @param positions the order before the move
+     * @param from      the index of the moved test
+     * @param to        the index the test was moved to
+     * @return the hash of the order after the move
+     */
+    public static long move(final long hash, final int[] positions, final int from, final int to) {
+        final int test = positions[from];
+        long moved = hash ^ key(from, test) ^ key(to, test);
+        if (from > to) {
+            for (int i = to; i < from; i++) {
+                moved ^= key(i, positions[i]) ^ key(i + 1, positions[i]);
+            }
+        } else {
+            for (int i = from + 1; i <= to; i++) {
+                moved ^= key(i, positions[i]) ^ key(i - 1, positions[i]);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Updates the hash of a test order after the test at the given index was shifted to the
+     * beginning, as done by the
+     * {@link de.uni_passau.fim.se2.se.test_prioritisation.mutations.ShiftToBeginningMutation}.
+     * Only the entries up to the given index change, so this takes {@code O(index)} time.
+     *
+     * @param hash      the hash of the order before the shift
+     * @param positions the order before the shift
+     * @param index     the index of the shifted test
+     * @return the hash of the order after the shift
+     */
+    public static long shiftToBeginning(final long hash, final int[] positions, final int index) {
+        return move(hash, positions, index, 0);
+    }
+}
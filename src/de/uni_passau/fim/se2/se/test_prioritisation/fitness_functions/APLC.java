@@ -2,29 +2,142 @@ package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
 
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
 /**
  * The Average Percentage of Lines Covered (APLC) fitness function.
+ * <p>
+ * Neighbours produced by shifting a single test of a recently evaluated order to the beginning
+ * are evaluated incrementally, which makes local search considerably cheaper. The state needed for
+ * this, as well as all scratch buffers, is kept per thread, so evaluations do not allocate and
+ * instances may be shared between threads.
+ * <p>
+ * Depending on the density of the coverage matrix, full evaluations either process the bit-packed
+ * rows 64 lines at a time or, for sparse matrices, only visit the lines each test actually covers.
+ * Lines covered by exactly the same tests are merged into a single weighted column beforehand,
+ * see {@link CoverageMatrix#mergeIdenticalLines()}.
+ * <p>
+ * Batches of test orders, such as the population of a genetic algorithm, are evaluated over the
+ * prefix trie of the batch, so that prefixes shared by several test orders are evaluated once (see
+ * {@link PrefixTrieEvaluator}). The trie is split across the threads of a {@link ForkJoinPool}.
+ * <p>
+ * Since preparing the coverage matrix takes a while on large instances, and every thread keeps
+ * its evaluation state for as long as the instance lives, an instance is best created once per
+ * coverage matrix and shared by all searches on it.
  */
 public final class APLC implements FitnessFunction<TestOrder> {
 
     /**
-     * The coverage matrix to be used when computing the APLC metric.
+     * The coverage matrix to be used when computing the APLC metric, with identical lines merged.
      */
-    private final boolean[][] coverageMatrix;
+    private final CoverageMatrix coverageMatrix;
 
     /**
-     * Creates a new APLC fitness function with the given coverage matrix.
+     * Computes the first-covering positions, incrementally where possible. One per thread.
+     */
+    private final ThreadLocal<APLCEvaluator> evaluator;
+
+    /**
+     * Computes the first-covering positions of batches of test orders. One per thread.
+     */
+    private final ThreadLocal<PrefixTrieEvaluator> trieEvaluator;
+
+    /**
+     * Whether the coverage matrix is sparse, in which case full evaluations are cheap enough that
+     * the prefix trie only pays off for batches sharing long prefixes.
+     */
+    private final boolean sparse;
+
+    /**
+     * The pool to evaluate batches of test orders in.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new APLC fitness function with the given coverage matrix. Batches of test orders
+     * are evaluated in the common pool.
      *
      * @param coverageMatrix the coverage matrix to be used when computing the APLC metric
      */
-    public APLC(final boolean[][] coverageMatrix) {
+    public APLC(final CoverageMatrix coverageMatrix) {
+        this(coverageMatrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new APLC fitness function with the given coverage matrix that evaluates batches
+     * of test orders in the given pool.
+     *
+     * @param coverageMatrix the coverage matrix to be used when computing the APLC metric
+     * @param pool           the pool to evaluate batches of test orders in
+     */
+    public APLC(final CoverageMatrix coverageMatrix, final ForkJoinPool pool) {
         if (coverageMatrix == null) {
             throw new IllegalArgumentException("Coverage matrix cannot be null");
         }
-        if (coverageMatrix.length == 0 || coverageMatrix[0].length == 0) {
-            throw new IllegalArgumentException("Coverage matrix cannot be empty");
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
         }
-        this.coverageMatrix = coverageMatrix;
+        this.pool = pool;
+        final CoverageMatrix merged = coverageMatrix.mergeIdenticalLines();
+        this.coverageMatrix = merged;
+        final long[] coverableLines = coverableLines(merged);
+        final SparseRows sparseRows = CoverageKernel.sparseRowsFor(merged);
+        this.sparse = sparseRows != null;
+        final Supplier<CoverageKernel> kernels = CoverageKernel.factoryFor(merged, sparseRows);
+        this.evaluator = ThreadLocal.withInitial(() -> new APLCEvaluator(merged, coverableLines, kernels.get()));
+        this.trieEvaluator = ThreadLocal.withInitial(() -> new PrefixTrieEvaluator(merged, coverableLines, sparseRows));
+    }
+
+    /**
+     * Creates a new APLC fitness function with the given coverage matrix.
+     *
+     * @param coverageMatrix the coverage matrix to be used when computing the APLC metric
+     */
+    public APLC(final boolean[][] coverageMatrix) {
+        this(CoverageMatrix.of(coverageMatrix));
+    }
+
+    /**
+     * Returns a mask with one bit set for every stored column that is covered by at least one
+     * test case.
+     *
+     * @param coverageMatrix the coverage matrix
+     * @return the mask of coverable columns
+     */
+    private static long[] coverableLines(final CoverageMatrix coverageMatrix) {
+        final long[] words = coverageMatrix.words();
+        final int wordsPerRow = coverageMatrix.wordsPerRow();
+        final long[] coverable = new long[wordsPerRow];
+        for (int offset = 0; offset < words.length; offset += wordsPerRow) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                coverable[w] |= words[offset + w];
+            }
+        }
+        return coverable;
+    }
+
+    /**
+     * Creates a neighbourhood that evaluates the insertion and swap neighbours of test orders on
+     * the coverage matrix of this fitness function incrementally. Every call creates a new
+     * neighbourhood, which must not be shared between threads.
+     *
+     * @return the neighbourhood
+     */
+    public APLCNeighbourhood neighbourhood() {
+        return new APLCNeighbourhood(coverageMatrix, SparseRows.of(coverageMatrix));
+    }
+
+    /**
+     * Returns the number of test cases of the coverage matrix of this fitness function.
+     *
+     * @return the number of test cases
+     */
+    public int numberOfTests() {
+        return coverageMatrix.numberOfTests();
     }
 
     /**
@@ -42,42 +155,170 @@ public final class APLC implements FitnessFunction<TestOrder> {
             throw new NullPointerException("Test order cannot be null");
         }
 
-        int n = coverageMatrix.length;  // Number of test cases
-        int m = coverageMatrix[0].length;  // Number of lines
         int[] positions = testOrder.getPositions();  // Test execution order
 
-        // Array to store the first test that covers each line
-        int[] firstCoveringTest = new int[m];
+        // Sum of the 1-based positions of the tests covering each line first, where lines not
+        // covered by any test are penalized by adding (n + 1)
+        final long sumFirstCoverage = evaluator.get().sumOfFirstCovers(positions);
+
+        return aplc(sumFirstCoverage);
+    }
+
+    /**
+     * Applies the APLC formula to the given sum of first-covering positions.
+     *
+     * @param sumFirstCoverage the sum of the first-covering positions over all lines
+     * @return the APLC value
+     */
+    private double aplc(final long sumFirstCoverage) {
+        return aplc(sumFirstCoverage, coverageMatrix.numberOfTests(), coverageMatrix.numberOfLines());
+    }
 
-        // Initialize all entries to an invalid value (e.g., -1)
-        for (int i = 0; i < m; i++) {
-            firstCoveringTest[i] = -1;
+    /**
+     * Applies the APLC formula to the given sum of first-covering positions.
+     *
+     * @param sumFirstCoverage the sum of the first-covering positions over all lines
+     * @param n                the number of test cases
+     * @param m                the number of lines
+     * @return the APLC value
+     */
+    static double aplc(final long sumFirstCoverage, final int n, final int m) {
+        return 1.0 - ((double) sumFirstCoverage / ((double) n * m)) + (1.0 / (2 * n));
+    }
+
+    /**
+     * Computes the APLC of every given test order. The test orders are sorted lexicographically
+     * and split into chunks of adjacent orders, whose prefix tries are evaluated in parallel by
+     * the threads of the pool. Since every thread keeps its own evaluation state, the threads do
+     * not need to synchronise.
+     * <p>
+     * For sparse coverage matrices, visiting a trie node costs about twice as much as covering a
+     * test in a full evaluation. There, the trie is only used if adjacent orders share at least
+     * half of their tests as prefix on average; otherwise, the orders are evaluated one by one,
+     * again in parallel.
+     *
+     * @param testOrders the test orders to evaluate
+     * @return the APLC values of the given test orders, in the same order
+     * @throws NullPointerException if {@code null} is given or contained in the list
+     */
+    @Override
+    public double[] applyAsDoubleAll(final List<? extends TestOrder> testOrders) throws NullPointerException {
+        if (testOrders == null) {
+            throw new NullPointerException("Test orders cannot be null");
         }
 
-        // Find the first test covering each line
-        for (int testIndex = 0; testIndex < positions.length; testIndex++) {
-            int test = positions[testIndex];
-            for (int line = 0; line < m; line++) {
-                if (coverageMatrix[test][line] && firstCoveringTest[line] == -1) {
-                    // Record the 1-based index of the first test that covers this line
-                    firstCoveringTest[line] = testIndex + 1;
-                }
+        final int size = testOrders.size();
+        final int[][] orders = new int[size][];
+        boolean complete = true;
+        for (int i = 0; i < size; i++) {
+            final TestOrder testOrder = testOrders.get(i);
+            if (testOrder == null) {
+                throw new NullPointerException("Test order cannot be null");
             }
+            orders[i] = testOrder.getPositions();
+            complete &= orders[i].length == coverageMatrix.numberOfTests();
+        }
+
+        final double[] fitness = new double[size];
+        if (!complete) {
+            // The trie needs every order to contain all tests.
+            evaluateEach(testOrders, fitness);
+            return fitness;
+        }
+
+        final int[] sorted = IntStream.range(0, size)
+                .boxed()
+                .sorted((a, b) -> Arrays.compare(orders[a], orders[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        if (sparse && !sharesLongPrefixes(orders, sorted)) {
+            evaluateEach(testOrders, fitness);
+            return fitness;
+        }
+
+        final long[] sums = new long[size];
+
+        // A few chunks per thread balance the load; splitting only loses the sharing of the few
+        // trie nodes that span two chunks.
+        final int chunks = Math.min(size, 4 * pool.getParallelism());
+        if (chunks <= 1) {
+            trieEvaluator.get().sumsOfFirstCovers(orders, sorted, 0, size, sums);
+        } else {
+            // A parallel stream started from within a pool runs in that pool rather than the common one.
+            pool.submit(() -> IntStream.range(0, chunks)
+                    .parallel()
+                    .forEach(c -> trieEvaluator.get().sumsOfFirstCovers(orders, sorted,
+                            (int) ((long) c * size / chunks), (int) ((long) (c + 1) * size / chunks), sums)))
+                    .join();
         }
 
-        // Compute the sum of the first test indices covering each line
-        int sumFirstCoverage = 0;
-        for (int line = 0; line < m; line++) {
-            if (firstCoveringTest[line] != -1) {
-                sumFirstCoverage += firstCoveringTest[line];
-            } else {
-                // If no test covers a line, penalize it by adding (n + 1)
-                sumFirstCoverage += (n + 1);
+        for (int i = 0; i < size; i++) {
+            fitness[i] = aplc(sums[i]);
+        }
+        return fitness;
+    }
+
+    /**
+     * Computes the APLC of every given test order one by one, in parallel by the threads of the
+     * pool.
+     *
+     * @param testOrders the test orders to evaluate
+     * @param fitness    where to store the APLC values, in the same order
+     */
+    private void evaluateEach(final List<? extends TestOrder> testOrders, final double[] fitness) {
+        if (pool.getParallelism() <= 1 || fitness.length <= 1) {
+            for (int i = 0; i < fitness.length; i++) {
+                fitness[i] = applyAsDouble(testOrders.get(i));
             }
+            return;
+        }
+
+        // A parallel stream started from within a pool runs in that pool rather than the common one.
+        pool.submit(() -> IntStream.range(0, fitness.length)
+                .parallel()
+                .forEach(i -> fitness[i] = applyAsDouble(testOrders.get(i))))
+                .join();
+    }
+
+    /**
+     * Tells whether adjacent orders in the given lexicographic order share at least half of their
+     * tests as prefix on average.
+     *
+     * @param orders the test orders
+     * @param sorted the lexicographically sorted indices of the orders
+     * @return {@code true} if the orders share long prefixes, {@code false} otherwise
+     */
+    private static boolean sharesLongPrefixes(final int[][] orders, final int[] sorted) {
+        long shared = 0;
+        long total = 0;
+        for (int i = 1; i < sorted.length; i++) {
+            final int[] previous = orders[sorted[i - 1]];
+            final int[] current = orders[sorted[i]];
+            final int mismatch = Arrays.mismatch(previous, current);
+            shared += mismatch < 0 ? current.length : mismatch;
+            total += current.length;
         }
+        return 2 * shared >= total;
+    }
 
-        // Apply the APLC formula
-        return 1.0 - ((double) sumFirstCoverage / (n * m)) + (1.0 / (2 * n));
+    /**
+     * Returns the fitness for maximisation.
+     */
+    @Override
+    public double[] maximiseAll(final List<? extends TestOrder> testOrders) throws NullPointerException {
+        return applyAsDoubleAll(testOrders);
+    }
+
+    /**
+     * Returns the fitness for minimisation.
+     */
+    @Override
+    public double[] minimiseAll(final List<? extends TestOrder> testOrders) throws NullPointerException {
+        final double[] fitness = applyAsDoubleAll(testOrders);
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = -fitness[i];
+        }
+        return fitness;
     }
 
     /**
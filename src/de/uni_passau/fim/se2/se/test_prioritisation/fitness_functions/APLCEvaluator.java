@@ -0,0 +1,323 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import java.util.Arrays;
+
+/**
+ * Computes the sum of first-covering positions on which the APLC metric is based.
+ * <p>
+ * The evaluator remembers the per-column first-covering positions of the two most recently
+ * evaluated test orders. If a test order differs from one of them only in that a single test was
+ * shifted to the beginning (as done by the
+ * {@link de.uni_passau.fim.se2.se.test_prioritisation.mutations.ShiftToBeginningMutation}), its
+ * first-covering positions are derived from the remembered ones in {@code O(n + m)} instead of
+ * recomputing them from scratch in {@code O(n * m)}. Keeping two orders around suffices for local
+ * search algorithms: the one neighbours are currently generated from, and the last neighbour,
+ * which might be accepted as the next one to generate neighbours from.
+ * <p>
+ * All buffers are allocated once, so evaluations do not allocate. Instead of resetting the
+ * first-covering positions before every evaluation, every entry is stamped with the generation of
+ * the evaluation that wrote it; entries with an outdated stamp belong to uncovered columns.
+ * <p>
+ * Since a stored column may stand for several identical lines, every column contributes its
+ * first-covering position times its weight to the sum.
+ * Instances keep mutable state and must not be shared between threads.
+ */
+final class APLCEvaluator {
+
+    /**
+     * The coverage matrix to evaluate test orders on.
+     */
+    private final CoverageMatrix coverageMatrix;
+
+    /**
+     * A mask with one bit set for every stored column that is covered by at least one test.
+     */
+    private final long[] coverableLines;
+
+    /**
+     * The number of lines that are covered by at least one test.
+     */
+    private final int coverable;
+
+    /**
+     * The number of lines every stored column stands for.
+     */
+    private final int[] weights;
+
+    /**
+     * Covers the columns of one test case at a time during a full evaluation.
+     */
+    private final CoverageKernel kernel;
+
+    /**
+     * The generation of the most recent evaluation, used to stamp first-covering positions.
+     */
+    private int generation;
+
+    /**
+     * The first-covering positions of the two most recently evaluated test orders.
+     */
+    private final FirstCovers[] recent;
+
+    /**
+     * The index of the most recently evaluated test order in {@link #recent}.
+     */
+    private int mostRecent;
+
+    /**
+     * Creates a new evaluator for the given coverage matrix.
+     *
+     * @param coverageMatrix the coverage matrix to evaluate test orders on
+     * @param coverableLines a mask with one bit set for every column covered by at least one test
+     * @param kernel         the kernel to use for full evaluations
+     */
+    APLCEvaluator(final CoverageMatrix coverageMatrix, final long[] coverableLines, final CoverageKernel kernel) {
+        this.coverageMatrix = coverageMatrix;
+        this.coverableLines = coverableLines;
+        this.weights = coverageMatrix.weights();
+        int coverable = 0;
+        for (int w = 0; w < coverableLines.length; w++) {
+            final int base = w * CoverageMatrix.LINES_PER_WORD;
+            for (long bits = coverableLines[w]; bits != 0; bits &= bits - 1) {
+                coverable += weights[base + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        this.coverable = coverable;
+        this.kernel = kernel;
+        this.generation = 0;
+
+        final int n = coverageMatrix.numberOfTests();
+        final int columns = coverageMatrix.numberOfColumns();
+        this.recent = new FirstCovers[]{new FirstCovers(n, columns), new FirstCovers(n, columns)};
+        this.mostRecent = 0;
+    }
+
+    /**
+     * Returns the sum of the 1-based positions of the tests that cover each line first. Lines not
+     * covered by any test contribute {@code n + 1}.
+     *
+     * @param positions the test order to evaluate
+     * @return the sum of the first-covering positions over all lines
+     */
+    long sumOfFirstCovers(final int[] positions) {
+        if (generation == Integer.MAX_VALUE) {
+            resetStamps();
+        }
+
+        // Try the most recently evaluated order first, it is the most likely parent.
+        for (int i = 0; i < recent.length; i++) {
+            final int parent = (mostRecent + i) % recent.length;
+            final int shifted = recent[parent].shiftedIndexOf(positions);
+            if (shifted >= 0) {
+                final int child = (parent + 1) % recent.length;
+                shiftToBeginning(recent[parent], shifted, recent[child]);
+                mostRecent = child;
+                return recent[child].sum;
+            }
+        }
+
+        final int child = (mostRecent + 1) % recent.length;
+        evaluate(positions, recent[child]);
+        mostRecent = child;
+        return recent[child].sum;
+    }
+
+    /**
+     * Computes the first-covering positions of the given test order from scratch. The scan over
+     * the order stops as soon as every coverable line has been covered, so its cost depends on
+     * the length of the prefix needed to reach full coverage rather than on the size of the suite.
+     *
+     * @param positions the test order to evaluate
+     * @param target    where to store the result
+     */
+    private void evaluate(final int[] positions, final FirstCovers target) {
+        final int n = coverageMatrix.numberOfTests();
+        final int[] firstCover = target.firstCover;
+        final int[] stamp = target.stamp;
+        final int generation = ++this.generation;
+
+        // Lines never covered keep an outdated stamp and thus the penalty of n + 1.
+        kernel.reset(coverableLines);
+        int remaining = coverable;
+
+        long sum = 0;
+        for (int testIndex = 0; remaining > 0 && testIndex < positions.length; testIndex++) {
+            final int position = testIndex + 1;
+            final int newlyCovered = kernel.cover(positions[testIndex], position, firstCover, stamp, generation);
+            sum += (long) newlyCovered * position;
+            remaining -= newlyCovered;
+        }
+
+        // Lines that cannot be covered at all, as well as coverable lines not covered by a
+        // malformed order, are penalised in one step.
+        final int uncoveredLines = coverageMatrix.numberOfLines() - coverable + remaining;
+        target.sum = sum + (long) uncoveredLines * (n + 1);
+        target.setOrder(positions, generation);
+    }
+
+    /**
+     * Derives the first-covering positions of the test order obtained by shifting the test at the
+     * given index of the {@code parent} order to the beginning. Columns covered by the shifted
+     * test are now covered first at position 1, columns first covered before its old index move
+     * one position back, and all other columns are unaffected.
+     *
+     * @param parent  the order before the shift
+     * @param index   the index of the shifted test in the parent order
+     * @param target  where to store the result
+     */
+    private void shiftToBeginning(final FirstCovers parent, final int index, final FirstCovers target) {
+        final int n = coverageMatrix.numberOfTests();
+        final int columns = coverageMatrix.numberOfColumns();
+        final long[] words = coverageMatrix.words();
+        final int offset = parent.order[index] * coverageMatrix.wordsPerRow();
+        final int generation = ++this.generation;
+
+        long sum = 0;
+        for (int column = 0; column < columns; column++) {
+            final int position = parent.stamp[column] == parent.generation ? parent.firstCover[column] : n + 1;
+            final int shifted;
+            if ((words[offset + column / CoverageMatrix.LINES_PER_WORD] & (1L << column)) != 0) {
+                shifted = 1;
+            } else if (position <= index) {
+                shifted = position + 1;
+            } else {
+                shifted = position;
+            }
+            if (shifted <= n) {
+                target.firstCover[column] = shifted;
+                target.stamp[column] = generation;
+            }
+            sum += (long) shifted * weights[column];
+        }
+
+        target.sum = sum;
+        target.setShiftedOrder(parent, index, generation);
+    }
+
+    /**
+     * Clears all stamps and forgets the remembered orders. Only needed in the unlikely event that
+     * the generation counter is about to overflow.
+     */
+    private void resetStamps() {
+        for (final FirstCovers firstCovers : recent) {
+            Arrays.fill(firstCovers.stamp, 0);
+            firstCovers.evaluated = false;
+        }
+        generation = 0;
+    }
+
+    /**
+     * The first-covering positions of all stored columns for one particular test order.
+     */
+    private static final class FirstCovers {
+
+        /**
+         * The test order the first-covering positions belong to.
+         */
+        private final int[] order;
+
+        /**
+         * The inverse of the test order, i.e., {@code indexOf[order[i]] == i}.
+         */
+        private final int[] indexOf;
+
+        /**
+         * The 1-based position of the test covering each column first. Only valid for columns
+         * whose {@link #stamp} matches the {@link #generation}, all other columns are not covered.
+         */
+        private final int[] firstCover;
+
+        /**
+         * The generation in which each entry of {@link #firstCover} was written.
+         */
+        private final int[] stamp;
+
+        /**
+         * The generation of the evaluation that produced this state.
+         */
+        private int generation;
+
+        /**
+         * The weighted sum over {@link #firstCover}, including the penalty for uncovered lines.
+         */
+        private long sum;
+
+        /**
+         * Whether an order has been evaluated yet.
+         */
+        private boolean evaluated;
+
+        private FirstCovers(final int tests, final int columns) {
+            this.order = new int[tests];
+            this.indexOf = new int[tests];
+            this.firstCover = new int[columns];
+            this.stamp = new int[columns];
+        }
+
+        /**
+         * Remembers the given order as the one the first-covering positions belong to.
+         *
+         * @param positions  the evaluated order
+         * @param generation the generation of the evaluation
+         */
+        private void setOrder(final int[] positions, final int generation) {
+            this.generation = generation;
+            if (positions.length != order.length) {
+                evaluated = false;
+                return;
+            }
+            System.arraycopy(positions, 0, order, 0, order.length);
+            for (int i = 0; i < order.length; i++) {
+                indexOf[order[i]] = i;
+            }
+            evaluated = true;
+        }
+
+        /**
+         * Remembers the order obtained by shifting the test at the given index of the parent
+         * order to the beginning.
+         *
+         * @param parent the order before the shift
+         * @param index      the index of the shifted test in the parent order
+         * @param generation the generation of the evaluation
+         */
+        private void setShiftedOrder(final FirstCovers parent, final int index, final int generation) {
+            this.generation = generation;
+            final int n = order.length;
+            order[0] = parent.order[index];
+            System.arraycopy(parent.order, 0, order, 1, index);
+            System.arraycopy(parent.order, index + 1, order, index + 1, n - index - 1);
+
+            // Only the indices of the tests up to the old index of the shifted test change.
+            System.arraycopy(parent.indexOf, 0, indexOf, 0, n);
+            for (int i = 0; i <= index; i++) {
+                indexOf[order[i]] = i;
+            }
+            evaluated = true;
+        }
+
+        /**
+         * Tells whether the given order can be obtained from this one by shifting a single test
+         * to the beginning, and if so, returns the index of that test in this order.
+         *
+         * @param positions the order to compare with
+         * @return the index of the shifted test, or {@code -1} if the orders are not related
+         */
+        private int shiftedIndexOf(final int[] positions) {
+            if (!evaluated || positions.length != order.length || positions.length == 0) {
+                return -1;
+            }
+
+            final int moved = positions[0];
+            if (moved < 0 || moved >= indexOf.length) {
+                return -1;
+            }
+
+            final int n = order.length;
+            final int index = indexOf[moved];
+            final boolean shifted = Arrays.equals(positions, 1, index + 1, order, 0, index)
+                    && Arrays.equals(positions, index + 1, n, order, index + 1, n);
+            return shifted ? index : -1;
+        }
+    }
+}
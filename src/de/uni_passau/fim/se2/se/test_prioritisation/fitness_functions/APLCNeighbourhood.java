@@ -0,0 +1,580 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Evaluates all insertion and swap neighbours of a test order incrementally, i.e., without
+ * computing the APLC of every neighbour from scratch.
+ * <p>
+ * The APLC of a test order only depends on the sum of the positions at which every line is
+ * covered first. For the current order, the neighbourhood maintains the index of the first and of
+ * the second test covering every stored column. Moving or swapping tests only changes the first
+ * cover of the columns that are covered first by a moved test, that are covered by a test moving
+ * in front of their first cover, or whose first cover is shifted by one position. From the first
+ * and second covers, the change of the sum can therefore be derived for all moves of one test at
+ * once, in time linear in the number of moves plus the coverage of the columns involved.
+ * <p>
+ * Once the first {@link #prefix()} tests of the order cover every coverable line, the tests after
+ * them do not contribute to the APLC. Moves that only rearrange these tests cannot change the
+ * fitness and are not enumerated. Thus, the cost of a full scan of the neighbourhood depends on
+ * the length of that prefix rather than on the square of the size of the suite.
+ * <p>
+ * Instances keep mutable state and must not be shared between threads.
+ *
+ * @see APLC#neighbourhood()
+ */
+public final class APLCNeighbourhood {
+
+    /**
+     * The kinds of moves in the neighbourhood of a test order.
+     */
+    public enum Move {
+
+        /**
+         * Removes the test at one index and inserts it at another one, shifting the tests in
+         * between by one position.
+         */
+        INSERTION,
+
+        /**
+         * Exchanges the tests at two indices.
+         */
+        SWAP
+    }
+
+    /**
+     * Receives the moves enumerated by {@link #scan(int, MoveConsumer)}.
+     */
+    @FunctionalInterface
+    public interface MoveConsumer {
+
+        /**
+         * Receives a move and its effect on the sum of first-covering positions. Negative deltas
+         * increase the APLC.
+         *
+         * @param move  the kind of move
+         * @param from  the index of the moved test
+         * @param to    the index the test is moved to, or the index of the test it is swapped with
+         * @param delta the change of the sum of first-covering positions caused by the move
+         * @return {@code true} to continue the scan, {@code false} to stop it
+         */
+        boolean accept(Move move, int from, int to, long delta);
+    }
+
+    /**
+     * Marks a first or second cover that is being recomputed.
+     */
+    private static final int UNKNOWN = -1;
+
+    /**
+     * The number of test cases.
+     */
+    private final int tests;
+
+    /**
+     * The number of lines of the coverage matrix.
+     */
+    private final int lines;
+
+    /**
+     * The number of lines every stored column stands for.
+     */
+    private final int[] weights;
+
+    /**
+     * The columns covered by every test.
+     */
+    private final SparseRows rows;
+
+    /**
+     * The start of the covering tests of every column in {@link #coveringTests}, followed by the
+     * total number of covered cells.
+     */
+    private final int[] columnOffsets;
+
+    /**
+     * The tests covering every column, column after column.
+     */
+    private final int[] coveringTests;
+
+    /**
+     * The current test order.
+     */
+    private final int[] order;
+
+    /**
+     * The index of the first test covering every column in the current order, or the number of
+     * tests if the column is not covered at all.
+     */
+    private final int[] firstCover;
+
+    /**
+     * The index of the second test covering every column in the current order, or the number of
+     * tests if the column is covered by fewer than two tests.
+     */
+    private final int[] secondCover;
+
+    /**
+     * The weight of the columns first covered at every index, followed by the weight of the
+     * columns not covered at all.
+     */
+    private final long[] firstCoverWeightAt;
+
+    /**
+     * The weight of the columns first covered before every index, up to the number of tests.
+     */
+    private final long[] firstCoverWeightBefore;
+
+    /**
+     * Scratch buffer of weights indexed by position, all zero between two scans.
+     */
+    private final long[] weightAt;
+
+    /**
+     * Scratch buffer of gains indexed by test. Only valid for tests whose {@link #gainStamp}
+     * matches the {@link #swapScan}, all other tests have no gain.
+     */
+    private final long[] gainOf;
+
+    /**
+     * The swap scan in which each entry of {@link #gainOf} was written.
+     */
+    private final int[] gainStamp;
+
+    /**
+     * The number of swap scans so far, used to stamp gains.
+     */
+    private int swapScan;
+
+    /**
+     * The index of the last test that covers a column first, or -1 if no column is covered.
+     */
+    private int lastFirstCover;
+
+    /**
+     * The sum of the 1-based first-covering positions of the current order, including the
+     * penalty of {@code n + 1} for lines not covered at all.
+     */
+    private long sum;
+
+    /**
+     * Creates a new neighbourhood for test orders on the given coverage matrix. The order must be
+     * set by {@link #reset(int[])} before the neighbourhood can be scanned.
+     *
+     * @param coverageMatrix the coverage matrix
+     * @param rows           the sparse representation of the coverage matrix
+     */
+    APLCNeighbourhood(final CoverageMatrix coverageMatrix, final SparseRows rows) {
+        this.tests = coverageMatrix.numberOfTests();
+        this.lines = coverageMatrix.numberOfLines();
+        this.weights = coverageMatrix.weights();
+        this.rows = rows;
+
+        // Transpose the sparse rows, so that the tests covering a column can be visited directly.
+        final int columns = coverageMatrix.numberOfColumns();
+        final int[] rowColumns = rows.columns();
+        this.columnOffsets = new int[columns + 1];
+        for (final int column : rowColumns) {
+            columnOffsets[column + 1]++;
+        }
+        for (int column = 0; column < columns; column++) {
+            columnOffsets[column + 1] += columnOffsets[column];
+        }
+        this.coveringTests = new int[rowColumns.length];
+        final int[] next = Arrays.copyOf(columnOffsets, columns);
+        for (int test = 0; test < tests; test++) {
+            for (int k = rows.start(test); k < rows.end(test); k++) {
+                coveringTests[next[rowColumns[k]]++] = test;
+            }
+        }
+
+        this.order = new int[tests];
+        this.firstCover = new int[columns];
+        this.secondCover = new int[columns];
+        this.firstCoverWeightAt = new long[tests + 1];
+        this.firstCoverWeightBefore = new long[tests + 1];
+        this.weightAt = new long[tests + 1];
+        this.gainOf = new long[tests];
+        this.gainStamp = new int[tests];
+        this.swapScan = 0;
+        this.lastFirstCover = -1;
+    }
+
+    /**
+     * Makes the given test order the current one.
+     *
+     * @param positions the test order, which must be a permutation of all tests
+     * @throws IllegalArgumentException if the order does not contain every test exactly once
+     */
+    public void reset(final int[] positions) {
+        if (positions == null || positions.length != tests) {
+            throw new IllegalArgumentException("Test order must contain every test exactly once");
+        }
+        System.arraycopy(positions, 0, order, 0, tests);
+        computeCovers();
+    }
+
+    /**
+     * Applies the given move to the current test order.
+     *
+     * @param move the kind of move
+     * @param from the index of the moved test
+     * @param to   the index the test is moved to, or the index of the test it is swapped with
+     * @throws IndexOutOfBoundsException if an index is out of bounds
+     */
+    public void apply(final Move move, final int from, final int to) {
+        Objects.checkIndex(from, tests);
+        Objects.checkIndex(to, tests);
+        final int test = order[from];
+        if (move == Move.SWAP) {
+            order[from] = order[to];
+            order[to] = test;
+        } else if (from < to) {
+            System.arraycopy(order, from + 1, order, from, to - from);
+            order[to] = test;
+        } else {
+            System.arraycopy(order, to, order, to + 1, from - to);
+            order[to] = test;
+        }
+        updateCovers(Math.min(from, to), Math.max(from, to));
+    }
+
+    /**
+     * Returns the number of tests.
+     *
+     * @return the number of tests
+     */
+    public int size() {
+        return tests;
+    }
+
+    /**
+     * Returns a copy of the current test order.
+     *
+     * @return the current test order
+     */
+    public int[] order() {
+        return order.clone();
+    }
+
+    /**
+     * Returns the sum of the 1-based first-covering positions of the current order, which
+     * {@link APLC} turns into the fitness value. Lower sums correspond to a higher APLC.
+     *
+     * @return the sum of the first-covering positions over all lines
+     */
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the APLC of the current order.
+     *
+     * @return the fitness of the current order
+     */
+    public double fitness() {
+        return APLC.aplc(sum, tests, lines);
+    }
+
+    /**
+     * Returns the length of the shortest prefix of the current order that covers every
+     * coverable line.
+     *
+     * @return the length of the prefix
+     */
+    public int prefix() {
+        return lastFirstCover + 1;
+    }
+
+    /**
+     * Enumerates the moves of the test at the given index that can change the fitness: first the
+     * insertions in front of it, then the insertions behind it, and finally the swaps with the
+     * tests behind it, each in ascending order of their target index. Swaps with tests in front
+     * of it are enumerated together with the moves of those tests.
+     *
+     * @param from     the index of the test to move
+     * @param consumer receives the moves and their deltas
+     * @return {@code false} if the consumer stopped the scan, {@code true} otherwise
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public boolean scan(final int from, final MoveConsumer consumer) {
+        Objects.checkIndex(from, tests);
+        return scanForwardInsertions(from, consumer)
+                && scanBackwardInsertions(from, consumer)
+                && scanSwaps(from, consumer);
+    }
+
+    /**
+     * Enumerates the insertions of the test at the given index in front of it. The moved test
+     * becomes the first cover of all its columns first covered at or after the target index.
+     * The columns first covered in between that it does not cover are covered one position
+     * later. Targets after the prefix change nothing.
+     *
+     * @param from     the index of the test to move
+     * @param consumer receives the moves and their deltas
+     * @return {@code false} if the consumer stopped the scan, {@code true} otherwise
+     */
+    private boolean scanForwardInsertions(final int from, final MoveConsumer consumer) {
+        final int last = Math.min(from - 1, lastFirstCover);
+        if (last < 0) {
+            return true;
+        }
+
+        // The weight of the columns of the moved test by the index of their first cover, all of
+        // which are at most the index of the test itself.
+        final int test = order[from];
+        final int[] rowColumns = rows.columns();
+        long covered = 0;
+        long coveredSum = 0;
+        for (int k = rows.start(test); k < rows.end(test); k++) {
+            final int column = rowColumns[k];
+            weightAt[firstCover[column]] += weights[column];
+            covered += weights[column];
+            coveredSum += (long) weights[column] * firstCover[column];
+        }
+
+        // The weight, and the weighted sum of first covers, of the columns of the moved test
+        // first covered at or after the target.
+        boolean proceed = true;
+        for (int to = 0; to <= last && proceed; to++) {
+            final long shifted = firstCoverWeightBefore[from] - firstCoverWeightBefore[to] - (covered - weightAt[from]);
+            proceed = consumer.accept(Move.INSERTION, from, to, covered * to - coveredSum + shifted);
+            covered -= weightAt[to];
+            coveredSum -= weightAt[to] * to;
+        }
+
+        for (int k = rows.start(test); k < rows.end(test); k++) {
+            weightAt[firstCover[rowColumns[k]]] = 0;
+        }
+        return proceed;
+    }
+
+    /**
+     * Enumerates the insertions of the test at the given index behind it. The columns first
+     * covered by the moved test are now covered by their second cover, which moves one position
+     * forward, or by the moved test itself at the target index, whichever comes first. The
+     * columns first covered in between are covered one position earlier. Tests after the prefix
+     * do not cover any column first, so their moves change nothing, and targets after both the
+     * prefix and all second covers all have the same effect, of which only the first is
+     * enumerated.
+     *
+     * @param from     the index of the test to move
+     * @param consumer receives the moves and their deltas
+     * @return {@code false} if the consumer stopped the scan, {@code true} otherwise
+     */
+    private boolean scanBackwardInsertions(final int from, final MoveConsumer consumer) {
+        if (from > lastFirstCover) {
+            return true;
+        }
+
+        // The weight of the columns first covered by the moved test by the index their second
+        // cover is shifted to, all of which are at least the index of the test itself.
+        final int test = order[from];
+        final int[] rowColumns = rows.columns();
+        int last = lastFirstCover;
+        for (int k = rows.start(test); k < rows.end(test); k++) {
+            final int column = rowColumns[k];
+            if (firstCover[column] == from) {
+                final int shifted = secondCover[column] - 1;
+                weightAt[shifted] += weights[column];
+                last = Math.max(last, shifted);
+            }
+        }
+        last = Math.min(last, tests - 1);
+
+        // The weight, and the weighted sum of the shifted second covers, of the columns first
+        // covered by the moved test whose shifted second cover lies before the target.
+        final long unique = firstCoverWeightAt[from];
+        long before = 0;
+        long beforeSum = 0;
+        boolean proceed = true;
+        for (int to = from + 1; to <= last && proceed; to++) {
+            before += weightAt[to - 1];
+            beforeSum += weightAt[to - 1] * (to - 1);
+            final long recovered = beforeSum + to * (unique - before) - from * unique;
+            final long shifted = firstCoverWeightBefore[to + 1] - firstCoverWeightBefore[from + 1];
+            proceed = consumer.accept(Move.INSERTION, from, to, recovered - shifted);
+        }
+
+        for (int k = rows.start(test); k < rows.end(test); k++) {
+            final int column = rowColumns[k];
+            if (firstCover[column] == from) {
+                weightAt[secondCover[column] - 1] = 0;
+            }
+        }
+        return proceed;
+    }
+
+    /**
+     * Enumerates the swaps of the test at the given index with the tests behind it. The columns
+     * first covered by the moved test are now covered by their second cover or by the moved test
+     * at the target index, whichever comes first, unless the other test covers them as well.
+     * The other test becomes the first cover of all its columns first covered after the index
+     * of the moved test. Swapping two tests after the prefix changes nothing.
+     *
+     * @param from     the index of the test to move
+     * @param consumer receives the moves and their deltas
+     * @return {@code false} if the consumer stopped the scan, {@code true} otherwise
+     */
+    private boolean scanSwaps(final int from, final MoveConsumer consumer) {
+        if (from > lastFirstCover) {
+            return true;
+        }
+        if (swapScan == Integer.MAX_VALUE) {
+            Arrays.fill(gainStamp, 0);
+            swapScan = 0;
+        }
+        final int scan = ++swapScan;
+
+        // The weight of the columns first covered by the moved test by the index of their
+        // second cover, which is after the test itself.
+        final int test = order[from];
+        final int[] rowColumns = rows.columns();
+        for (int k = rows.start(test); k < rows.end(test); k++) {
+            final int column = rowColumns[k];
+            if (firstCover[column] == from) {
+                weightAt[secondCover[column]] += weights[column];
+            }
+        }
+
+        // The gain of every other test when moved to the index of the moved test: it covers
+        // the columns it shares with the moved test as early as before, and all its columns
+        // first covered after that index earlier. Only the columns first covered within the
+        // prefix are visited, each through the test covering it first.
+        for (int index = from; index <= lastFirstCover; index++) {
+            final int first = order[index];
+            for (int k = rows.start(first); k < rows.end(first); k++) {
+                final int column = rowColumns[k];
+                if (firstCover[column] != index) {
+                    continue;
+                }
+                final long gain = (long) weights[column] * ((index == from ? secondCover[column] : index) - from);
+                for (int c = columnOffsets[column]; c < columnOffsets[column + 1]; c++) {
+                    final int other = coveringTests[c];
+                    if (gainStamp[other] != scan) {
+                        gainStamp[other] = scan;
+                        gainOf[other] = 0;
+                    }
+                    gainOf[other] += gain;
+                }
+            }
+        }
+
+        // The weight, and the weighted sum of second covers, of the columns first covered by
+        // the moved test whose second cover lies at or before the target.
+        final long unique = firstCoverWeightAt[from];
+        long before = 0;
+        long beforeSum = 0;
+        boolean proceed = true;
+        for (int to = from + 1; to < tests && proceed; to++) {
+            before += weightAt[to];
+            beforeSum += weightAt[to] * to;
+            final long recovered = beforeSum + to * (unique - before) - from * unique;
+            final int other = order[to];
+            final long gain = gainStamp[other] == scan ? gainOf[other] : 0;
+            proceed = consumer.accept(Move.SWAP, from, to, recovered - gain);
+        }
+
+        for (int k = rows.start(test); k < rows.end(test); k++) {
+            final int column = rowColumns[k];
+            if (firstCover[column] == from) {
+                weightAt[secondCover[column]] = 0;
+            }
+        }
+        return proceed;
+    }
+
+    /**
+     * Computes the first and second covers of the current order from scratch.
+     */
+    private void computeCovers() {
+        Arrays.fill(firstCover, tests);
+        Arrays.fill(secondCover, tests);
+        final int[] rowColumns = rows.columns();
+        for (int index = 0; index < tests; index++) {
+            final int test = order[index];
+            for (int k = rows.start(test); k < rows.end(test); k++) {
+                final int column = rowColumns[k];
+                if (firstCover[column] == tests) {
+                    firstCover[column] = index;
+                } else if (secondCover[column] == tests) {
+                    secondCover[column] = index;
+                }
+            }
+        }
+
+        Arrays.fill(firstCoverWeightAt, 0);
+        for (int column = 0; column < firstCover.length; column++) {
+            firstCoverWeightAt[firstCover[column]] += weights[column];
+        }
+        sum = firstCoverWeightAt[tests] * (tests + 1);
+        lastFirstCover = -1;
+        summarise(0, tests - 1);
+    }
+
+    /**
+     * Updates the first and second covers after the tests between the given indices have been
+     * rearranged among themselves. Only the columns covered by one of these tests can change.
+     * Since the number of tests in between that cover such a column stays the same, its covers
+     * before and after the rearranged tests stay valid, and only those in between have to be
+     * recomputed. This takes time linear in the coverage of the rearranged tests.
+     *
+     * @param from the index of the first rearranged test
+     * @param to   the index of the last rearranged test
+     */
+    private void updateCovers(final int from, final int to) {
+        for (int index = from; index <= to; index++) {
+            sum -= firstCoverWeightAt[index] * (index + 1);
+        }
+        final int[] rowColumns = rows.columns();
+        for (int index = from; index <= to; index++) {
+            final int test = order[index];
+            for (int k = rows.start(test); k < rows.end(test); k++) {
+                final int column = rowColumns[k];
+                if (secondCover[column] >= from && secondCover[column] <= to) {
+                    secondCover[column] = UNKNOWN;
+                }
+                if (firstCover[column] >= from && firstCover[column] <= to) {
+                    firstCoverWeightAt[firstCover[column]] -= weights[column];
+                    firstCover[column] = UNKNOWN;
+                }
+            }
+        }
+        for (int index = from; index <= to; index++) {
+            final int test = order[index];
+            for (int k = rows.start(test); k < rows.end(test); k++) {
+                final int column = rowColumns[k];
+                if (firstCover[column] == UNKNOWN) {
+                    firstCover[column] = index;
+                    firstCoverWeightAt[index] += weights[column];
+                } else if (secondCover[column] == UNKNOWN) {
+                    secondCover[column] = index;
+                }
+            }
+        }
+        summarise(from, to);
+    }
+
+    /**
+     * Updates the sum of first-covering positions, the cumulative weights and the end of the
+     * prefix after the first covers between the given indices have been recomputed. The weight
+     * of the columns first covered between these indices stays the same, so the cumulative
+     * weights after them stay valid.
+     *
+     * @param from the index of the first recomputed test
+     * @param to   the index of the last recomputed test
+     */
+    private void summarise(final int from, final int to) {
+        for (int index = from; index <= to; index++) {
+            sum += firstCoverWeightAt[index] * (index + 1);
+            firstCoverWeightBefore[index + 1] = firstCoverWeightBefore[index] + firstCoverWeightAt[index];
+        }
+        if (lastFirstCover <= to) {
+            lastFirstCover = to;
+            while (lastFirstCover >= 0 && firstCoverWeightAt[lastFirstCover] == 0) {
+                lastFirstCover--;
+            }
+        }
+    }
+}
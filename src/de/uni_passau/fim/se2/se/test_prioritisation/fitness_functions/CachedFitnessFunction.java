@@ -0,0 +1,355 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.ZobristHash;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memoises the fitness values of recently evaluated test orders, so that revisiting a test order
+ * (e.g., when a mutation happens to be a no-op or a child equals one of its parents) does not pay
+ * for another evaluation of the wrapped fitness function.
+ * <p>
+ * Test orders are looked up by their {@link ZobristHash} alone, which they maintain incrementally
+ * as they are mutated, so a lookup takes constant time instead of time linear in the number of
+ * tests. Two different orders share a 64-bit hash with probability {@code 2^-64}, so even a cache
+ * looked up billions of times is unlikely to ever confuse two orders. At most {@code capacity}
+ * orders are kept; when the cache is full, the least recently used entry is evicted.
+ * <p>
+ * Every entry holds the value computed by {@link FitnessFunction#applyAsDouble}, from which the
+ * maximised and minimised values are derived, so the wrapped fitness function must be a
+ * maximisation objective whose {@link FitnessFunction#minimise} is the negated value, such as the
+ * {@link APLC}.
+ * <p>
+ * Search algorithms notify their stopping condition after every fitness evaluation, whether it was
+ * answered from the cache or not. To spend the budget on new test orders only, wrap the stopping
+ * condition with {@link #budget(StoppingCondition, boolean)}.
+ * <p>
+ * Instances may be shared between threads if the wrapped fitness function may.
+ */
+public final class CachedFitnessFunction implements FitnessFunction<TestOrder> {
+
+    /**
+     * The fitness function to evaluate test orders not found in the cache with.
+     */
+    private final FitnessFunction<TestOrder> fitnessFunction;
+
+    /**
+     * The maximum number of test orders to remember.
+     */
+    private final int capacity;
+
+    /**
+     * The values of the remembered test orders by hash, in access order from least to most
+     * recently used.
+     */
+    private final LinkedHashMap<Long, Double> entries;
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private long hits;
+
+    /**
+     * The number of lookups that required an evaluation of the wrapped fitness function.
+     */
+    private long misses;
+
+    /**
+     * The number of hits that have not yet been matched by a notification of the stopping
+     * condition returned by {@link #budget(StoppingCondition, boolean)}.
+     */
+    private long unbilledHits;
+
+    /**
+     * Creates a new cache for the given fitness function.
+     *
+     * @param fitnessFunction the fitness function to cache the values of
+     * @param capacity        the maximum number of test orders to remember
+     */
+    public CachedFitnessFunction(final FitnessFunction<TestOrder> fitnessFunction, final int capacity) {
+        if (fitnessFunction == null) {
+            throw new IllegalArgumentException("Fitness function cannot be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        this.fitnessFunction = fitnessFunction;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Double> eldest) {
+                return size() > CachedFitnessFunction.this.capacity;
+            }
+        };
+    }
+
+    @Override
+    public double applyAsDouble(final TestOrder testOrder) throws NullPointerException {
+        return lookup(testOrder, Kind.VALUE);
+    }
+
+    @Override
+    public double maximise(final TestOrder testOrder) throws NullPointerException {
+        return lookup(testOrder, Kind.MAXIMISE);
+    }
+
+    @Override
+    public double minimise(final TestOrder testOrder) throws NullPointerException {
+        return lookup(testOrder, Kind.MINIMISE);
+    }
+
+    @Override
+    public double[] applyAsDoubleAll(final List<? extends TestOrder> testOrders) throws NullPointerException {
+        return lookupAll(testOrders, Kind.VALUE);
+    }
+
+    @Override
+    public double[] maximiseAll(final List<? extends TestOrder> testOrders) throws NullPointerException {
+        return lookupAll(testOrders, Kind.MAXIMISE);
+    }
+
+    @Override
+    public double[] minimiseAll(final List<? extends TestOrder> testOrders) throws NullPointerException {
+        return lookupAll(testOrders, Kind.MINIMISE);
+    }
+
+    /**
+     * Returns the requested fitness value of the given test order, from the cache if possible.
+     *
+     * @param testOrder the test order to evaluate
+     * @param kind      which fitness value to compute
+     * @return the fitness value
+     * @throws NullPointerException if {@code null} is given
+     */
+    private double lookup(final TestOrder testOrder, final Kind kind) {
+        if (testOrder == null) {
+            throw new NullPointerException("Test order cannot be null");
+        }
+
+        final Long hash = testOrder.hash();
+
+        synchronized (this) {
+            final Double cached = entries.get(hash);
+            if (cached != null) {
+                hits++;
+                unbilledHits++;
+                return kind.derive(cached);
+            }
+            misses++;
+        }
+
+        // Evaluate outside the lock, so that other threads are not blocked in the meantime.
+        final double value = fitnessFunction.applyAsDouble(testOrder);
+
+        synchronized (this) {
+            entries.put(hash, value);
+        }
+        return kind.derive(value);
+    }
+
+    /**
+     * Returns the requested fitness values of the given test orders. Test orders not found in the
+     * cache are passed to the wrapped fitness function as one batch.
+     *
+     * @param testOrders the test orders to evaluate
+     * @param kind       which fitness value to compute
+     * @return the fitness values, in the same order
+     * @throws NullPointerException if {@code null} is given or contained in the list
+     */
+    private double[] lookupAll(final List<? extends TestOrder> testOrders, final Kind kind) {
+        if (testOrders == null) {
+            throw new NullPointerException("Test orders cannot be null");
+        }
+
+        final double[] fitness = new double[testOrders.size()];
+        final long[] hashes = new long[fitness.length];
+        final List<TestOrder> missed = new ArrayList<>();
+        final List<Integer> missedIndices = new ArrayList<>();
+
+        for (int i = 0; i < fitness.length; i++) {
+            final TestOrder testOrder = testOrders.get(i);
+            if (testOrder == null) {
+                throw new NullPointerException("Test order cannot be null");
+            }
+            hashes[i] = testOrder.hash();
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < fitness.length; i++) {
+                final Double cached = entries.get(hashes[i]);
+                if (cached == null) {
+                    missed.add(testOrders.get(i));
+                    missedIndices.add(i);
+                    misses++;
+                } else {
+                    fitness[i] = kind.derive(cached);
+                    hits++;
+                    unbilledHits++;
+                }
+            }
+        }
+
+        if (missed.isEmpty()) {
+            return fitness;
+        }
+
+        final double[] values = fitnessFunction.applyAsDoubleAll(missed);
+
+        synchronized (this) {
+            for (int j = 0; j < values.length; j++) {
+                final int i = missedIndices.get(j);
+                entries.put(hashes[i], values[j]);
+                fitness[i] = kind.derive(values[j]);
+            }
+        }
+        return fitness;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache since it was last cleared.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that required an evaluation of the wrapped fitness function
+     * since the cache was last cleared.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of lookups answered from the cache since it was last cleared.
+     *
+     * @return the hit rate, or 0 if there were no lookups
+     */
+    public synchronized double getHitRate() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the number of test orders currently remembered.
+     *
+     * @return the number of cache entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Forgets all remembered test orders and resets the hit and miss counters.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        unbilledHits = 0;
+    }
+
+    /**
+     * Returns a stopping condition that forwards to the given one and clears this cache whenever
+     * a new search is started, so that repetitions of a search do not profit from each other.
+     * <p>
+     * If {@code billHits} is {@code false}, fitness evaluations answered from the cache are not
+     * counted towards the budget of the given stopping condition, i.e., only evaluations of new
+     * test orders are. To guarantee termination of searches that keep revisiting the same test
+     * orders, at most {@code capacity} consecutive fitness evaluations are free of charge.
+     *
+     * @param stoppingCondition the stopping condition defining the budget of the search
+     * @param billHits          whether cache hits count as fitness evaluations
+     * @return the stopping condition to register with the search algorithm
+     */
+    public StoppingCondition budget(final StoppingCondition stoppingCondition, final boolean billHits) {
+        if (stoppingCondition == null) {
+            throw new IllegalArgumentException("Stopping condition cannot be null");
+        }
+        return new StoppingCondition() {
+
+            /**
+             * The number of consecutive fitness evaluations that have not been billed.
+             */
+            private int freeHits = 0;
+
+            @Override
+            public void notifySearchStarted() {
+                clear();
+                freeHits = 0;
+                stoppingCondition.notifySearchStarted();
+            }
+
+            @Override
+            public void notifyFitnessEvaluation() {
+                final boolean hit = !billHits && takeUnbilledHit();
+                if (hit && freeHits < capacity) {
+                    freeHits++;
+                    return;
+                }
+                freeHits = 0;
+                stoppingCondition.notifyFitnessEvaluation();
+            }
+
+            @Override
+            public void notifyImprovement(final double fitness) {
+                stoppingCondition.notifyImprovement(fitness);
+            }
+
+            @Override
+            public boolean searchMustStop() {
+                return stoppingCondition.searchMustStop();
+            }
+
+            @Override
+            public double getProgress() {
+                return stoppingCondition.getProgress();
+            }
+
+            @Override
+            public boolean limitsBudget() {
+                return stoppingCondition.limitsBudget();
+            }
+        };
+    }
+
+    /**
+     * Consumes one of the hits that have not been matched by a notification of the stopping
+     * condition yet.
+     *
+     * @return {@code true} if there was such a hit, {@code false} otherwise
+     */
+    private synchronized boolean takeUnbilledHit() {
+        if (unbilledHits == 0) {
+            return false;
+        }
+        unbilledHits--;
+        return true;
+    }
+
+    /**
+     * The fitness values derived from the value of a cache entry.
+     */
+    private enum Kind {
+        VALUE, MAXIMISE, MINIMISE;
+
+        /**
+         * Derives this fitness value from the value of the wrapped fitness function.
+         *
+         * @param value the value computed by {@link FitnessFunction#applyAsDouble}
+         * @return the fitness value
+         */
+        private double derive(final double value) {
+            return this == MINIMISE ? -value : value;
+        }
+    }
+}
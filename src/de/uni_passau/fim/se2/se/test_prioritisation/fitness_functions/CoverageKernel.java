@@ -0,0 +1,189 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import java.lang.reflect.Constructor;
+import java.util.function.Supplier;
+
+/**
+ * The inner loop of the APLC computation: determines the lines of a single test case that have
+ * not been covered so far, records the position at which they were covered first, and marks them
+ * as covered.
+ * <p>
+ * Depending on the density of the coverage matrix, one of the following implementations is used:
+ * <ul>
+ *     <li>For sparse matrices, in which a test covers only a small fraction of the lines, a
+ *     {@link SparseCoverageKernel} that only visits the covered lines of each test.</li>
+ *     <li>Otherwise, a {@link VectorCoverageKernel} based on the incubating Vector API if the
+ *     {@code jdk.incubator.vector} module is available at runtime (i.e., the JVM was started with
+ *     {@code --add-modules jdk.incubator.vector}), the system property {@value #VECTOR_PROPERTY}
+ *     is not set to {@code false}, and the rows of the coverage matrix are long enough to fill at
+ *     least one vector of the preferred shape of the platform.</li>
+ *     <li>Otherwise, a {@link ScalarCoverageKernel} that processes 64 lines at a time.</li>
+ * </ul>
+ * Kernels keep the lines covered so far as mutable state and must not be shared between threads.
+ */
+abstract class CoverageKernel {
+
+    /**
+     * System property that disables the vectorised kernel when set to {@code false}.
+     */
+    static final String VECTOR_PROPERTY = "aplc.vector";
+
+    /**
+     * The density of the coverage matrix below which the sparse kernel is used. A dense kernel
+     * needs one operation per 64 lines and test, the sparse kernel one (more expensive) operation
+     * per covered line.
+     */
+    static final double SPARSE_DENSITY_THRESHOLD = 1.0 / 64;
+
+    /**
+     * The vectorised kernel, or {@code null} if the Vector API is unavailable.
+     */
+    private static final VectorKernel VECTOR_KERNEL = findVectorKernel();
+
+    /**
+     * The number of lines every column stands for.
+     */
+    protected final int[] weights;
+
+    protected CoverageKernel(final CoverageMatrix coverageMatrix) {
+        this.weights = coverageMatrix.weights();
+    }
+
+    /**
+     * Returns the sparse representation of the given coverage matrix if it is sparse enough for
+     * the sparse kernel to pay off.
+     *
+     * @param coverageMatrix the coverage matrix to scan
+     * @return the sparse representation, or {@code null} if the dense kernels should be used
+     */
+    static SparseRows sparseRowsFor(final CoverageMatrix coverageMatrix) {
+        return storedDensity(coverageMatrix) < SPARSE_DENSITY_THRESHOLD ? SparseRows.of(coverageMatrix) : null;
+    }
+
+    /**
+     * Returns a factory for the kernel best suited for the given coverage matrix. Data shared by
+     * all kernels, such as the sparse representation of the matrix, is only computed once.
+     *
+     * @param coverageMatrix the coverage matrix to scan
+     * @param sparseRows     the result of {@link #sparseRowsFor(CoverageMatrix)}
+     * @return the kernel factory
+     */
+    static Supplier<CoverageKernel> factoryFor(final CoverageMatrix coverageMatrix, final SparseRows sparseRows) {
+        if (sparseRows != null) {
+            return () -> new SparseCoverageKernel(coverageMatrix, sparseRows);
+        }
+        return () -> createDense(coverageMatrix);
+    }
+
+    /**
+     * Returns the fraction of set bits among the stored columns of the given coverage matrix.
+     * Unlike {@link CoverageMatrix#density()}, this ignores the weights of the columns, since the
+     * kernels process every column once regardless of its weight.
+     *
+     * @param coverageMatrix the coverage matrix
+     * @return the density of the stored columns
+     */
+    private static double storedDensity(final CoverageMatrix coverageMatrix) {
+        long covered = 0;
+        for (final long word : coverageMatrix.words()) {
+            covered += Long.bitCount(word);
+        }
+        return (double) covered / ((double) coverageMatrix.numberOfTests() * coverageMatrix.numberOfColumns());
+    }
+
+    /**
+     * Creates the fastest dense kernel available for the given coverage matrix.
+     *
+     * @param coverageMatrix the coverage matrix to scan
+     * @return the kernel
+     */
+    private static CoverageKernel createDense(final CoverageMatrix coverageMatrix) {
+        if (VECTOR_KERNEL != null && coverageMatrix.wordsPerRow() >= VECTOR_KERNEL.lanes()) {
+            try {
+                return VECTOR_KERNEL.constructor().newInstance(coverageMatrix);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar kernel.
+            }
+        }
+        return new ScalarCoverageKernel(coverageMatrix);
+    }
+
+    /**
+     * Looks up the vectorised kernel if the Vector API can be used.
+     *
+     * @return the vectorised kernel, or {@code null} if it cannot be used
+     */
+    private static VectorKernel findVectorKernel() {
+        if ("false".equalsIgnoreCase(System.getProperty(VECTOR_PROPERTY))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+
+        try {
+            final Class<? extends CoverageKernel> kernel =
+                    Class.forName(CoverageKernel.class.getPackageName() + ".VectorCoverageKernel")
+                            .asSubclass(CoverageKernel.class);
+            final int lanes = (int) kernel.getDeclaredMethod("lanes").invoke(null);
+            return new VectorKernel(kernel.getDeclaredConstructor(CoverageMatrix.class), lanes);
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The vectorised kernel, looked up reflectively so that the Vector API is only loaded if it
+     * is available.
+     *
+     * @param constructor the constructor of the kernel
+     * @param lanes       the number of words the kernel processes at once, which rows must have
+     *                    at least for the kernel to pay off
+     */
+    private record VectorKernel(Constructor<? extends CoverageKernel> constructor, int lanes) {
+    }
+
+    /**
+     * Starts a new scan in which the given lines are still to be covered.
+     *
+     * @param lines a mask of the lines to cover
+     */
+    abstract void reset(long[] lines);
+
+    /**
+     * Covers the columns of the given test case that have not been covered so far. For each of
+     * them, the given position is recorded as first-covering position. Columns count as covered
+     * in the current scan if their stamp matches the given generation.
+     *
+     * @param test       the index of the test case
+     * @param position   the 1-based position of the test case in the test order
+     * @param firstCover where to record first-covering positions
+     * @param stamp      where to record the generation of the first-covering positions
+     * @param generation the generation of the current evaluation
+     * @return the number of newly covered lines, i.e., the total weight of the newly covered columns
+     */
+    abstract int cover(int test, int position, int[] firstCover, int[] stamp, int generation);
+
+    /**
+     * Records the given position as first-covering position of every column in the given word of
+     * newly covered columns.
+     *
+     * @param hit        the newly covered columns of the word
+     * @param word       the index of the word
+     * @param position   the first-covering position to record
+     * @param firstCover where to record first-covering positions
+     * @param stamp      where to record the generation of the first-covering positions
+     * @param generation the generation of the current evaluation
+     * @return the number of newly covered lines, i.e., the total weight of the newly covered columns
+     */
+    final int record(final long hit, final int word, final int position,
+                     final int[] firstCover, final int[] stamp, final int generation) {
+        final int base = word * CoverageMatrix.LINES_PER_WORD;
+        int covered = 0;
+        for (long bits = hit; bits != 0; bits &= bits - 1) {
+            final int column = base + Long.numberOfTrailingZeros(bits);
+            firstCover[column] = position;
+            stamp[column] = generation;
+            covered += weights[column];
+        }
+        return covered;
+    }
+}
@@ -0,0 +1,383 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable coverage matrix that tells which lines of code are covered by which test cases.
+ * Every row corresponds to a test case and every column corresponds to a line in the class under
+ * test. An entry {@code covers(i, j) == true} indicates that test case {@code i} covers line
+ * {@code j}.
+ * <p>
+ * The matrix is stored as a bitset in row-major order: every row occupies
+ * {@link #wordsPerRow()} consecutive {@code long} words, each of which holds the coverage of 64
+ * columns. Bits beyond the last column of a row are always zero. Compared to a
+ * {@code boolean[][]}, this needs about an eighth of the memory and allows fitness functions to
+ * process 64 columns at once.
+ * <p>
+ * Lines covered by exactly the same test cases (e.g., straight-line code in one basic block) can
+ * be stored in a single column by {@link #mergeIdenticalLines()}. Every stored column then has a
+ * weight that tells how many lines it stands for. Merging does not change the lines, tests and
+ * entries of the matrix as seen through its public methods.
+ */
+public final class CoverageMatrix {
+
+    /**
+     * The number of columns stored in one word.
+     */
+    static final int LINES_PER_WORD = Long.SIZE;
+
+    /**
+     * The number of test cases, i.e., rows.
+     */
+    private final int tests;
+
+    /**
+     * The number of lines.
+     */
+    private final int lines;
+
+    /**
+     * The number of stored columns. Equal to the number of lines unless identical lines have been
+     * merged.
+     */
+    private final int columns;
+
+    /**
+     * The number of words occupied by every row.
+     */
+    private final int wordsPerRow;
+
+    /**
+     * The coverage bits of all rows, in row-major order.
+     */
+    private final long[] words;
+
+    /**
+     * The number of lines every stored column stands for.
+     */
+    private final int[] weights;
+
+    /**
+     * The stored column of every line, or {@code null} if every line is stored in its own column.
+     */
+    private final int[] columnOf;
+
+    private CoverageMatrix(final int tests, final int lines, final int columns, final long[] words,
+                           final int[] weights, final int[] columnOf) {
+        this.tests = tests;
+        this.lines = lines;
+        this.columns = columns;
+        this.wordsPerRow = wordsFor(columns);
+        this.words = words;
+        this.weights = weights;
+        this.columnOf = columnOf;
+    }
+
+    /**
+     * Creates a new coverage matrix from the given rectangular {@code boolean[][]}, where
+     * {@code coverageMatrix[i][j] == true} indicates that test case {@code i} covers line
+     * {@code j}. The given array is not retained.
+     *
+     * @param coverageMatrix the coverage matrix to convert
+     * @return the bit-packed coverage matrix
+     * @throws IllegalArgumentException if the given matrix is {@code null}, empty or not rectangular
+     */
+    public static CoverageMatrix of(final boolean[][] coverageMatrix) {
+        if (coverageMatrix == null) {
+            throw new IllegalArgumentException("Coverage matrix cannot be null");
+        }
+        if (coverageMatrix.length == 0 || coverageMatrix[0] == null || coverageMatrix[0].length == 0) {
+            throw new IllegalArgumentException("Coverage matrix cannot be empty");
+        }
+
+        final int tests = coverageMatrix.length;
+        final int lines = coverageMatrix[0].length;
+        final int wordsPerRow = wordsFor(lines);
+        final long[] words = new long[tests * wordsPerRow];
+
+        for (int test = 0; test < tests; test++) {
+            final boolean[] row = coverageMatrix[test];
+            if (row == null || row.length != lines) {
+                throw new IllegalArgumentException("Coverage matrix must be rectangular");
+            }
+
+            final int offset = test * wordsPerRow;
+            for (int line = 0; line < lines; line++) {
+                if (row[line]) {
+                    words[offset + line / LINES_PER_WORD] |= 1L << line;
+                }
+            }
+        }
+
+        final int[] weights = new int[lines];
+        Arrays.fill(weights, 1);
+        return new CoverageMatrix(tests, lines, lines, words, weights, null);
+    }
+
+    /**
+     * Returns the number of words needed to store the given number of columns.
+     *
+     * @param columns the number of columns
+     * @return the number of words
+     */
+    static int wordsFor(final int columns) {
+        return (columns + LINES_PER_WORD - 1) / LINES_PER_WORD;
+    }
+
+    /**
+     * Returns an equivalent coverage matrix in which all lines covered by exactly the same test
+     * cases share a single column, whose weight is the number of these lines. Since the APLC
+     * metric only depends on which test covers a line first, this does not change fitness values
+     * but can shrink the number of columns that need to be processed several-fold.
+     *
+     * @return the merged coverage matrix, or {@code this} if there are no identical lines
+     */
+    public CoverageMatrix mergeIdenticalLines() {
+        final int testWords = wordsFor(tests);
+
+        // The set of tests covering every stored column, one bitset per column.
+        final long[] transposed = new long[columns * testWords];
+        for (int test = 0; test < tests; test++) {
+            final int offset = test * wordsPerRow;
+            final long testBit = 1L << test;
+            for (int w = 0; w < wordsPerRow; w++) {
+                final int base = w * LINES_PER_WORD;
+                for (long bits = words[offset + w]; bits != 0; bits &= bits - 1) {
+                    final int column = base + Long.numberOfTrailingZeros(bits);
+                    transposed[column * testWords + test / LINES_PER_WORD] |= testBit;
+                }
+            }
+        }
+
+        // Assign every distinct set of covering tests a merged column.
+        final Map<TestSet, Integer> mergedColumns = new HashMap<>();
+        final int[] mergedOf = new int[columns];
+        for (int column = 0; column < columns; column++) {
+            final TestSet coveringTests = new TestSet(transposed, column * testWords, testWords);
+            mergedOf[column] = mergedColumns.computeIfAbsent(coveringTests, k -> mergedColumns.size());
+        }
+
+        final int merged = mergedColumns.size();
+        if (merged == columns) {
+            return this;
+        }
+
+        final int[] mergedWeights = new int[merged];
+        for (int column = 0; column < columns; column++) {
+            mergedWeights[mergedOf[column]] += weights[column];
+        }
+
+        final int mergedWordsPerRow = wordsFor(merged);
+        final long[] mergedWords = new long[tests * mergedWordsPerRow];
+        for (int test = 0; test < tests; test++) {
+            final int offset = test * wordsPerRow;
+            final int mergedOffset = test * mergedWordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                final int base = w * LINES_PER_WORD;
+                for (long bits = words[offset + w]; bits != 0; bits &= bits - 1) {
+                    final int target = mergedOf[base + Long.numberOfTrailingZeros(bits)];
+                    mergedWords[mergedOffset + target / LINES_PER_WORD] |= 1L << target;
+                }
+            }
+        }
+
+        final int[] mergedColumnOf = new int[lines];
+        for (int line = 0; line < lines; line++) {
+            mergedColumnOf[line] = mergedOf[column(line)];
+        }
+
+        return new CoverageMatrix(tests, lines, merged, mergedWords, mergedWeights, mergedColumnOf);
+    }
+
+    /**
+     * Returns the number of test cases, i.e., the number of rows in the matrix.
+     *
+     * @return the number of test cases
+     */
+    public int numberOfTests() {
+        return tests;
+    }
+
+    /**
+     * Returns the number of lines in the matrix.
+     *
+     * @return the number of lines
+     */
+    public int numberOfLines() {
+        return lines;
+    }
+
+    /**
+     * Tells whether the given test case covers the given line.
+     *
+     * @param test the index of the test case
+     * @param line the index of the line
+     * @return {@code true} if the line is covered by the test case, {@code false} otherwise
+     * @throws IndexOutOfBoundsException if the test or line index is out of bounds
+     */
+    public boolean covers(final int test, final int line) {
+        if (test < 0 || test >= tests || line < 0 || line >= lines) {
+            throw new IndexOutOfBoundsException("No entry at (" + test + ", " + line + ")");
+        }
+        final int column = column(line);
+        return (words[test * wordsPerRow + column / LINES_PER_WORD] & (1L << column)) != 0;
+    }
+
+    /**
+     * Returns the number of lines covered by the given test case.
+     *
+     * @param test the index of the test case
+     * @return the number of covered lines
+     */
+    public int coveredLines(final int test) {
+        final int offset = test * wordsPerRow;
+        int covered = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            final int base = w * LINES_PER_WORD;
+            for (long bits = words[offset + w]; bits != 0; bits &= bits - 1) {
+                covered += weights[base + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * Returns the fraction of entries in the matrix that are {@code true}, i.e., the number of
+     * covered cells divided by the number of cells.
+     *
+     * @return the density of the matrix
+     */
+    public double density() {
+        long covered = 0;
+        for (int test = 0; test < tests; test++) {
+            covered += coveredLines(test);
+        }
+        return (double) covered / ((double) tests * lines);
+    }
+
+    /**
+     * Returns the stored column of the given line.
+     *
+     * @param line the index of the line
+     * @return the index of the column
+     */
+    private int column(final int line) {
+        return columnOf == null ? line : columnOf[line];
+    }
+
+    /**
+     * Returns the number of stored columns.
+     *
+     * @return the number of columns
+     */
+    int numberOfColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of words occupied by every row.
+     *
+     * @return the number of words per row
+     */
+    int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Returns a reference to the underlying internal backing array. It must not be modified.
+     *
+     * @return the coverage bits in row-major order
+     */
+    long[] words() {
+        return words;
+    }
+
+    /**
+     * Returns a reference to the number of lines every stored column stands for. It must not be
+     * modified.
+     *
+     * @return the weights of the columns
+     */
+    int[] weights() {
+        return weights;
+    }
+
+    /**
+     * Converts this matrix back to a {@code boolean[][]}.
+     *
+     * @return a new array representation of this coverage matrix
+     */
+    public boolean[][] toArray() {
+        final boolean[][] matrix = new boolean[tests][lines];
+        for (int test = 0; test < tests; test++) {
+            for (int line = 0; line < lines; line++) {
+                matrix[test][line] = covers(test, line);
+            }
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CoverageMatrix that)) {
+            return false;
+        }
+        if (tests != that.tests || lines != that.lines) {
+            return false;
+        }
+        if (columnOf == null && that.columnOf == null) {
+            return Arrays.equals(words, that.words);
+        }
+        return Arrays.deepEquals(toArray(), that.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * tests + lines;
+        for (int test = 0; test < tests; test++) {
+            hash = 31 * hash + coveredLines(test);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CoverageMatrix[" + tests + " tests x " + lines + " lines]";
+    }
+
+    /**
+     * A set of test cases, given as a slice of a bitset, used to find identical lines.
+     */
+    private static final class TestSet {
+
+        private final long[] bits;
+        private final int from;
+        private final int length;
+
+        private TestSet(final long[] bits, final int from, final int length) {
+            this.bits = bits;
+            this.from = from;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof TestSet that
+                    && Arrays.equals(bits, from, from + length, that.bits, that.from, that.from + length);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (int i = from; i < from + length; i++) {
+                hash = 31 * hash + Long.hashCode(bits[i]);
+            }
+            return hash;
+        }
+    }
+}
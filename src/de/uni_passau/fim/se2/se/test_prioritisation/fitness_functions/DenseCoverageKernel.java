@@ -0,0 +1,35 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+/**
+ * Base class for kernels operating on the bit-packed rows of a {@link CoverageMatrix}. The lines
+ * not covered so far are kept as a bitset, too.
+ */
+abstract class DenseCoverageKernel extends CoverageKernel {
+
+    /**
+     * The coverage bits of all rows, in row-major order.
+     */
+    protected final long[] words;
+
+    /**
+     * The number of words occupied by every row.
+     */
+    protected final int wordsPerRow;
+
+    /**
+     * The lines not covered so far.
+     */
+    protected final long[] uncovered;
+
+    protected DenseCoverageKernel(final CoverageMatrix coverageMatrix) {
+        super(coverageMatrix);
+        this.words = coverageMatrix.words();
+        this.wordsPerRow = coverageMatrix.wordsPerRow();
+        this.uncovered = new long[wordsPerRow];
+    }
+
+    @Override
+    final void reset(final long[] lines) {
+        System.arraycopy(lines, 0, uncovered, 0, wordsPerRow);
+    }
+}
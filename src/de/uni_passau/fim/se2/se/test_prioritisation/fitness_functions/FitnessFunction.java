@@ -1,5 +1,6 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
 
+import java.util.List;
 import java.util.function.ToDoubleFunction;
 
 /**
@@ -35,4 +36,52 @@ public interface FitnessFunction<E> extends ToDoubleFunction<E> {
      * @return the fitness of the encoding for minimisation algorithms
      */
     double minimise(final E encoding) throws NullPointerException;
+
+    /**
+     * Calculates the fitness of every given encoding. Implementations may evaluate the encodings
+     * in parallel; by default, they are evaluated one after another.
+     *
+     * @param encodings the encodings to calculate the fitness for
+     * @return the fitness of the encodings, in the same order
+     * @throws NullPointerException if {@code null} is given or contained in the list
+     */
+    default double[] applyAsDoubleAll(final List<? extends E> encodings) throws NullPointerException {
+        final double[] fitness = new double[encodings.size()];
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = applyAsDouble(encodings.get(i));
+        }
+        return fitness;
+    }
+
+    /**
+     * Calculates the fitness of every given encoding for maximisation algorithms. Implementations
+     * may evaluate the encodings in parallel; by default, they are evaluated one after another.
+     *
+     * @param encodings the encodings to calculate the fitness for
+     * @return the fitness of the encodings for maximisation algorithms, in the same order
+     * @throws NullPointerException if {@code null} is given or contained in the list
+     */
+    default double[] maximiseAll(final List<? extends E> encodings) throws NullPointerException {
+        final double[] fitness = new double[encodings.size()];
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = maximise(encodings.get(i));
+        }
+        return fitness;
+    }
+
+    /**
+     * Calculates the fitness of every given encoding for minimisation algorithms. Implementations
+     * may evaluate the encodings in parallel; by default, they are evaluated one after another.
+     *
+     * @param encodings the encodings to calculate the fitness for
+     * @return the fitness of the encodings for minimisation algorithms, in the same order
+     * @throws NullPointerException if {@code null} is given or contained in the list
+     */
+    default double[] minimiseAll(final List<? extends E> encodings) throws NullPointerException {
+        final double[] fitness = new double[encodings.size()];
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = minimise(encodings.get(i));
+        }
+        return fitness;
+    }
 }
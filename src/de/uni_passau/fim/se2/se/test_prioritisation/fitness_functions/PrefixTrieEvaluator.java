@@ -0,0 +1,332 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import java.util.Arrays;
+
+/**
+ * Computes the sums of first-covering positions for a whole population of test orders at once,
+ * sharing the work for common prefixes.
+ * <p>
+ * The coverage reached after a prefix of a test order only depends on that prefix. If the test
+ * orders are sorted lexicographically, all orders sharing a prefix form a contiguous range, and the
+ * ranges for longer prefixes are nested within the ranges for shorter ones. Walking these ranges
+ * depth-first is thus a walk over the prefix trie of the population: the tests of a trie node are
+ * covered once for all orders below it, and the walk only branches where the orders diverge. A
+ * branch ends as soon as all coverable lines are covered, since the remaining tests cannot
+ * change the sum anymore.
+ * <p>
+ * The uncovered lines are kept in a single bitset. Entering a trie node clears the lines newly
+ * covered by its test and logs them, leaving the node sets them again. Thus, a node costs as much
+ * as covering one test in a full evaluation: a pass over the row of the test, or over its covered
+ * lines if the coverage matrix is sparse. For a population of {@code p} orders whose trie has
+ * {@code k} nodes above full coverage, the work drops from that of {@code p} full evaluations to
+ * {@code k} tests, which pays off for converged populations in which most individuals share long
+ * prefixes. The walk keeps its path through the trie on an explicit stack rather than the call
+ * stack, since the trie is as deep as the test suite is large. Instances keep the bitset, the log
+ * and the stack as scratch state and must not be shared between threads.
+ */
+final class PrefixTrieEvaluator {
+
+    /**
+     * The coverage bits of all rows, in row-major order.
+     */
+    private final long[] words;
+
+    /**
+     * The number of words occupied by every row.
+     */
+    private final int wordsPerRow;
+
+    /**
+     * The covered columns of every test, or {@code null} if the matrix is too dense for this
+     * to pay off.
+     */
+    private final SparseRows sparseRows;
+
+    /**
+     * The number of lines every stored column stands for.
+     */
+    private final int[] weights;
+
+    /**
+     * Whether every stored column stands for a single line, so that newly covered lines can be
+     * counted with {@link Long#bitCount(long)}.
+     */
+    private final boolean unitWeights;
+
+    /**
+     * The number of test cases.
+     */
+    private final int tests;
+
+    /**
+     * The number of lines that are covered by at least one test.
+     */
+    private final int coverable;
+
+    /**
+     * The penalty for lines that cannot be covered by any test.
+     */
+    private final long uncoverablePenalty;
+
+    /**
+     * The columns not covered by the prefix of the current trie node.
+     */
+    private final long[] uncovered;
+
+    /**
+     * The words in which columns were cleared on the way to the current trie node.
+     */
+    private int[] clearedWords;
+
+    /**
+     * The columns cleared in the corresponding entry of {@link #clearedWords}.
+     */
+    private long[] clearedBits;
+
+    /**
+     * The number of entries in the log of cleared columns.
+     */
+    private int cleared;
+
+    /**
+     * The test orders of the current population.
+     */
+    private int[][] orders;
+
+    /**
+     * The sums of first-covering positions of the current population.
+     */
+    private long[] sums;
+
+    /**
+     * The stack of trie nodes on the path of the walk, indexed by the length of their prefix. For
+     * every node, the range of orders sharing its prefix, the start of the range of the next child
+     * to visit, and the size of the log after covering the prefix.
+     */
+    private final int[] frameFrom;
+    private final int[] frameTo;
+    private final int[] frameNext;
+    private final int[] frameMark;
+
+    /**
+     * The sum of the first-covering positions of the lines covered by the prefix of every node on
+     * the stack.
+     */
+    private final long[] frameSum;
+
+    /**
+     * The number of coverable lines not covered by the prefix of every node on the stack.
+     */
+    private final int[] frameRemaining;
+
+    /**
+     * Creates a new evaluator for the given coverage matrix.
+     *
+     * @param coverageMatrix the coverage matrix to evaluate test orders on
+     * @param coverableLines a mask with one bit set for every column covered by at least one test
+     * @param sparseRows     the sparse representation of the matrix, or {@code null} to process
+     *                       whole rows
+     */
+    PrefixTrieEvaluator(final CoverageMatrix coverageMatrix, final long[] coverableLines, final SparseRows sparseRows) {
+        this.words = coverageMatrix.words();
+        this.wordsPerRow = coverageMatrix.wordsPerRow();
+        this.sparseRows = sparseRows;
+        this.weights = coverageMatrix.weights();
+        this.tests = coverageMatrix.numberOfTests();
+
+        boolean unitWeights = true;
+        for (final int weight : weights) {
+            unitWeights &= weight == 1;
+        }
+        this.unitWeights = unitWeights;
+
+        int coverable = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            coverable += linesOf(coverableLines[w], w);
+        }
+        this.coverable = coverable;
+        this.uncoverablePenalty = (long) (coverageMatrix.numberOfLines() - coverable) * (tests + 1);
+
+        this.uncovered = coverableLines.clone();
+        this.clearedWords = new int[wordsPerRow];
+        this.clearedBits = new long[wordsPerRow];
+        this.cleared = 0;
+
+        this.frameFrom = new int[tests + 1];
+        this.frameTo = new int[tests + 1];
+        this.frameNext = new int[tests + 1];
+        this.frameMark = new int[tests + 1];
+        this.frameSum = new long[tests + 1];
+        this.frameRemaining = new int[tests + 1];
+    }
+
+    /**
+     * Computes the sum of the 1-based positions of the tests that cover each line first for every
+     * given test order. Lines not covered by any test contribute {@code n + 1}.
+     *
+     * @param orders the test orders to evaluate, each of which must contain all {@code n} tests
+     * @param sorted indices into {@code orders} such that the orders from {@code sorted[from]} to
+     *               {@code sorted[to - 1]} are sorted lexicographically
+     * @param from   the first index into {@code sorted} to evaluate (inclusive)
+     * @param to     the last index into {@code sorted} to evaluate (exclusive)
+     * @param sums   where to store the sum of every order, at the same index as in {@code orders}
+     */
+    void sumsOfFirstCovers(final int[][] orders, final int[] sorted, final int from, final int to, final long[] sums) {
+        this.orders = orders;
+        this.sums = sums;
+        try {
+            walk(sorted, from, to);
+        } finally {
+            restore(0);
+            this.orders = null;
+            this.sums = null;
+        }
+    }
+
+    /**
+     * Walks the trie of the prefixes shared by the given range of orders depth-first, starting
+     * with the empty prefix.
+     *
+     * @param sorted the lexicographically sorted indices of the orders
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive)
+     */
+    private void walk(final int[] sorted, final int from, final int to) {
+        int depth = 0;
+        push(depth, from, to, 0, coverable);
+
+        while (depth >= 0) {
+            final int remaining = frameRemaining[depth];
+            if (remaining == 0 || depth == tests) {
+                final long total = frameSum[depth] + uncoverablePenalty + (long) remaining * (tests + 1);
+                for (int i = frameFrom[depth]; i < frameTo[depth]; i++) {
+                    sums[sorted[i]] = total;
+                }
+                depth--;
+                continue;
+            }
+
+            final int i = frameNext[depth];
+            final int end = frameTo[depth];
+            if (i == end) {
+                depth--;
+                continue;
+            }
+
+            final int test = orders[sorted[i]][depth];
+            int j = i + 1;
+            while (j < end && orders[sorted[j]][depth] == test) {
+                j++;
+            }
+            frameNext[depth] = j;
+
+            // Uncover the lines of the previous child before covering the next one.
+            restore(frameMark[depth]);
+            final int position = depth + 1;
+            final int newlyCovered = cover(test);
+            push(position, i, j, frameSum[depth] + (long) newlyCovered * position, remaining - newlyCovered);
+            depth = position;
+        }
+    }
+
+    /**
+     * Enters the trie node of the prefix of the given length shared by the given range of orders.
+     *
+     * @param depth     the length of the shared prefix
+     * @param from      the first index of the range (inclusive)
+     * @param to        the last index of the range (exclusive)
+     * @param sum       the sum of the first-covering positions of the lines covered by the prefix
+     * @param remaining the number of coverable lines not covered by the prefix
+     */
+    private void push(final int depth, final int from, final int to, final long sum, final int remaining) {
+        frameFrom[depth] = from;
+        frameTo[depth] = to;
+        frameNext[depth] = from;
+        frameMark[depth] = cleared;
+        frameSum[depth] = sum;
+        frameRemaining[depth] = remaining;
+    }
+
+    /**
+     * Clears and logs the columns of the given test that are not covered yet.
+     *
+     * @param test the test to cover
+     * @return the number of newly covered lines
+     */
+    private int cover(final int test) {
+        int newlyCovered = 0;
+        if (sparseRows != null) {
+            final int[] columns = sparseRows.columns();
+            final int end = sparseRows.end(test);
+            for (int i = sparseRows.start(test); i < end; i++) {
+                final int column = columns[i];
+                final int w = column / CoverageMatrix.LINES_PER_WORD;
+                final long bit = 1L << column;
+                if ((uncovered[w] & bit) != 0) {
+                    uncovered[w] &= ~bit;
+                    log(w, bit);
+                    newlyCovered += weights[column];
+                }
+            }
+        } else {
+            final int offset = test * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                final long hit = words[offset + w] & uncovered[w];
+                if (hit != 0) {
+                    uncovered[w] &= ~hit;
+                    log(w, hit);
+                    newlyCovered += linesOf(hit, w);
+                }
+            }
+        }
+        return newlyCovered;
+    }
+
+    /**
+     * Appends the given cleared columns to the log.
+     *
+     * @param word the index of the word
+     * @param bits the cleared columns of the word
+     */
+    private void log(final int word, final long bits) {
+        if (cleared == clearedWords.length) {
+            final int capacity = Math.max(16, 2 * cleared);
+            clearedWords = Arrays.copyOf(clearedWords, capacity);
+            clearedBits = Arrays.copyOf(clearedBits, capacity);
+        }
+        clearedWords[cleared] = word;
+        clearedBits[cleared] = bits;
+        cleared++;
+    }
+
+    /**
+     * Sets all columns cleared since the log had the given size again.
+     *
+     * @param mark the size of the log to return to
+     */
+    private void restore(final int mark) {
+        while (cleared > mark) {
+            cleared--;
+            uncovered[clearedWords[cleared]] |= clearedBits[cleared];
+        }
+    }
+
+    /**
+     * Returns the number of lines stood for by the given word of columns.
+     *
+     * @param bits the columns of the word
+     * @param word the index of the word
+     * @return the number of lines
+     */
+    private int linesOf(final long bits, final int word) {
+        if (unitWeights) {
+            return Long.bitCount(bits);
+        }
+        final int base = word * CoverageMatrix.LINES_PER_WORD;
+        int lines = 0;
+        for (long remaining = bits; remaining != 0; remaining &= remaining - 1) {
+            lines += weights[base + Long.numberOfTrailingZeros(remaining)];
+        }
+        return lines;
+    }
+}
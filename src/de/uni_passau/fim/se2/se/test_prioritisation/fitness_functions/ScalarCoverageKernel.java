@@ -0,0 +1,25 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+/**
+ * Processes the coverage of a test case one word, i.e., 64 lines, at a time.
+ */
+final class ScalarCoverageKernel extends DenseCoverageKernel {
+
+    ScalarCoverageKernel(final CoverageMatrix coverageMatrix) {
+        super(coverageMatrix);
+    }
+
+    @Override
+    int cover(final int test, final int position, final int[] firstCover, final int[] stamp, final int generation) {
+        final int offset = test * wordsPerRow;
+        int newlyCovered = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            final long hit = words[offset + w] & uncovered[w];
+            if (hit != 0) {
+                uncovered[w] &= ~hit;
+                newlyCovered += record(hit, w, position, firstCover, stamp, generation);
+            }
+        }
+        return newlyCovered;
+    }
+}
@@ -0,0 +1,37 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+/**
+ * Visits only the lines actually covered by a test case, so that the cost of an evaluation is
+ * proportional to the number of covered cells rather than to the size of the coverage matrix.
+ * Whether a column has been covered in the current scan is told by its stamp alone.
+ */
+final class SparseCoverageKernel extends CoverageKernel {
+
+    private final SparseRows rows;
+
+    SparseCoverageKernel(final CoverageMatrix coverageMatrix, final SparseRows rows) {
+        super(coverageMatrix);
+        this.rows = rows;
+    }
+
+    @Override
+    void reset(final long[] columns) {
+        // Nothing to do, stamps of a new generation are outdated for all columns.
+    }
+
+    @Override
+    int cover(final int test, final int position, final int[] firstCover, final int[] stamp, final int generation) {
+        final int[] columns = rows.columns();
+        final int end = rows.end(test);
+        int newlyCovered = 0;
+        for (int i = rows.start(test); i < end; i++) {
+            final int column = columns[i];
+            if (stamp[column] != generation) {
+                firstCover[column] = position;
+                stamp[column] = generation;
+                newlyCovered += weights[column];
+            }
+        }
+        return newlyCovered;
+    }
+}
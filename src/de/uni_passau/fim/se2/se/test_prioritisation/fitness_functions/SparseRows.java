@@ -0,0 +1,89 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+/**
+ * An immutable compressed sparse row (CSR) representation of a coverage matrix. For every test
+ * case, only the sorted indices of the stored columns it covers are kept. The covered columns of
+ * test {@code i} are {@code columns[offsets[i]]} to {@code columns[offsets[i + 1] - 1]}.
+ */
+final class SparseRows {
+
+    /**
+     * The start of the covered columns of every test case in {@link #columns}, followed by the
+     * total number of covered cells.
+     */
+    private final int[] offsets;
+
+    /**
+     * The covered columns of all test cases, row after row.
+     */
+    private final int[] columns;
+
+    private SparseRows(final int[] offsets, final int[] columns) {
+        this.offsets = offsets;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates the sparse representation of the given coverage matrix.
+     *
+     * @param coverageMatrix the coverage matrix to convert
+     * @return the sparse representation
+     */
+    static SparseRows of(final CoverageMatrix coverageMatrix) {
+        final int tests = coverageMatrix.numberOfTests();
+        final int wordsPerRow = coverageMatrix.wordsPerRow();
+        final long[] words = coverageMatrix.words();
+
+        final int[] offsets = new int[tests + 1];
+        for (int test = 0; test < tests; test++) {
+            int covered = 0;
+            for (int w = 0; w < wordsPerRow; w++) {
+                covered += Long.bitCount(words[test * wordsPerRow + w]);
+            }
+            offsets[test + 1] = offsets[test] + covered;
+        }
+
+        final int[] columns = new int[offsets[tests]];
+        for (int test = 0, next = 0; test < tests; test++) {
+            final int offset = test * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                final int base = w * CoverageMatrix.LINES_PER_WORD;
+                for (long bits = words[offset + w]; bits != 0; bits &= bits - 1) {
+                    columns[next++] = base + Long.numberOfTrailingZeros(bits);
+                }
+            }
+        }
+
+        return new SparseRows(offsets, columns);
+    }
+
+    /**
+     * Returns the index in {@link #columns()} at which the covered columns of the given test start.
+     *
+     * @param test the index of the test case
+     * @return the start of the covered columns of the test
+     */
+    int start(final int test) {
+        return offsets[test];
+    }
+
+    /**
+     * Returns the index in {@link #columns()} at which the covered columns of the given test end
+     * (exclusive).
+     *
+     * @param test the index of the test case
+     * @return the end of the covered columns of the test
+     */
+    int end(final int test) {
+        return offsets[test + 1];
+    }
+
+    /**
+     * Returns a reference to the underlying internal backing array. It must not be modified.
+     *
+     * @return the covered columns of all test cases
+     */
+    int[] columns() {
+        return columns;
+    }
+}
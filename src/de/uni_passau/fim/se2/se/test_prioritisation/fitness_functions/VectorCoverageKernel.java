@@ -0,0 +1,73 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Processes the coverage of a test case as many words at a time as fit into the preferred vector
+ * shape of the platform, e.g., 4 words (256 lines) with AVX2 or 8 words (512 lines) with AVX-512.
+ * Only the words of a vector that actually contain newly covered lines are inspected bit by bit.
+ * <p>
+ * This class must only be loaded if the {@code jdk.incubator.vector} module is available, which
+ * is ensured by {@link CoverageKernel#factoryFor(CoverageMatrix, SparseRows)}.
+ */
+final class VectorCoverageKernel extends DenseCoverageKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Scratch buffer receiving the newly covered lines of one vector.
+     */
+    private final long[] hits;
+
+    /**
+     * Returns the number of words processed at once, i.e., the minimum number of words per row
+     * for which this kernel runs at least one full vector iteration.
+     *
+     * @return the number of lanes of the preferred vector shape
+     */
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    VectorCoverageKernel(final CoverageMatrix coverageMatrix) {
+        super(coverageMatrix);
+        this.hits = new long[SPECIES.length()];
+    }
+
+    @Override
+    int cover(final int test, final int position, final int[] firstCover, final int[] stamp, final int generation) {
+        final int offset = test * wordsPerRow;
+        final int lanes = SPECIES.length();
+        final int bound = SPECIES.loopBound(wordsPerRow);
+        int newlyCovered = 0;
+
+        int w = 0;
+        for (; w < bound; w += lanes) {
+            final LongVector row = LongVector.fromArray(SPECIES, words, offset + w);
+            final LongVector open = LongVector.fromArray(SPECIES, uncovered, w);
+            final LongVector hit = row.and(open);
+            if (hit.compare(VectorOperators.NE, 0L).anyTrue()) {
+                open.lanewise(VectorOperators.AND_NOT, hit).intoArray(uncovered, w);
+                hit.intoArray(hits, 0);
+                for (int lane = 0; lane < lanes; lane++) {
+                    if (hits[lane] != 0) {
+                        newlyCovered += record(hits[lane], w + lane, position, firstCover, stamp, generation);
+                    }
+                }
+            }
+        }
+
+        // Remaining words that do not fill a whole vector.
+        for (; w < wordsPerRow; w++) {
+            final long hit = words[offset + w] & uncovered[w];
+            if (hit != 0) {
+                uncovered[w] &= ~hit;
+                newlyCovered += record(hit, w, position, firstCover, stamp, generation);
+            }
+        }
+
+        return newlyCovered;
+    }
+}
@@ -0,0 +1,21 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.mutations;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.MutableTestOrder;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+
+/**
+ * A mutation of test orders that can also be applied in place, to a {@link MutableTestOrder}.
+ * Applying it in place must perform the same random transformation as {@link #apply(Object)}
+ * would, drawing the same random numbers.
+ */
+public interface InPlaceMutation extends Mutation<TestOrder> {
+
+    /**
+     * Applies the mutation to the given test order in place, using the operations of the test
+     * order that record the transformation in its undo log.
+     *
+     * @param testOrder the test order to mutate
+     * @throws NullPointerException if {@code null} is given
+     */
+    void applyInPlace(final MutableTestOrder testOrder);
+}
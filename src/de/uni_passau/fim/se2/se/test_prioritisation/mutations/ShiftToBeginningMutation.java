@@ -1,17 +1,19 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.mutations;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.MutableTestOrder;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.ZobristHash;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
-public class ShiftToBeginningMutation implements Mutation<TestOrder> {
+public class ShiftToBeginningMutation implements InPlaceMutation {
 
     /**
      * The internal source of randomness.
      */
-    private final Random random;
+    private final RandomGenerator random;
 
-    public ShiftToBeginningMutation(final Random random) {
+    public ShiftToBeginningMutation(final RandomGenerator random) {
         this.random = random;
     }
 
@@ -40,7 +42,22 @@ public class ShiftToBeginningMutation implements Mutation<TestOrder> {
         // Insert the test at the beginning
         newPositions[0] = testToShift;
 
+        // Carry the hash over incrementally, unless it was never needed for the original order
+        final long hash = encoding.hasHash()
+                ? ZobristHash.shiftToBeginning(encoding.hash(), encoding.getPositions(), index)
+                : 0;
+
         // Return the mutated encoding
-        return new TestOrder(encoding.getMutation(), newPositions);
+        return TestOrder.trusted(encoding.getMutation(), newPositions, hash);
+    }
+
+    /**
+     * Shifts a test to the beginning of the sequence, in place.
+     *
+     * @param testOrder the test order to be mutated
+     */
+    @Override
+    public void applyInPlace(final MutableTestOrder testOrder) {
+        testOrder.shiftToBeginning(random.nextInt(testOrder.size()));
     }
 }
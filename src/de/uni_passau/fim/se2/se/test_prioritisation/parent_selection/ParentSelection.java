@@ -1,9 +1,12 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.parent_selection;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.Individual;
+
 import java.util.List;
 
 /**
  * A parent selection operator selects parents from a population to be evolved in the current generation of an evolutionary algorithm.
+ * The individuals of the population carry the fitness they were evaluated with, so selecting parents never evaluates the fitness function.
  *
  * @param <E> the type of the solution encodings the evolutionary algorithm works on
  */
@@ -15,5 +18,5 @@ public interface ParentSelection<E> {
      * @param population the population from which to select parents
      * @return the selected parent
      */
-    E selectParent(List<E> population);
+    Individual<E> selectParent(List<Individual<E>> population);
 }
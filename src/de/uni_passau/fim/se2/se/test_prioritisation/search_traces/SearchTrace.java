@@ -0,0 +1,59 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.search_traces;
+
+/**
+ * A search trace records the course of a single search, one entry per fitness evaluation that
+ * counts towards the budget. Search algorithms report every such evaluation right after notifying
+ * their stopping condition of it, and the trace numbers the evaluations in the order they are
+ * reported.
+ * <p>
+ * The fitness values are reported as APLC values, i.e., higher is better, even for algorithms
+ * that minimise an energy. A trace is fed by one thread at a time and must be closed once its
+ * search has finished.
+ */
+public interface SearchTrace extends AutoCloseable {
+
+    /**
+     * A trace that records nothing, used unless tracing is enabled. Reporting to it has no
+     * measurable cost.
+     */
+    SearchTrace DISABLED = new SearchTrace() {
+
+        @Override
+        public void evaluated(final double currentFitness, final double bestFitness, final double temperature) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Reports a fitness evaluation.
+     *
+     * @param currentFitness the fitness of the current solution of the search after the
+     *                       evaluation, or of the evaluated individual for population-based
+     *                       algorithms
+     * @param bestFitness    the fitness of the best solution found so far
+     * @param temperature    the current temperature, or {@link Double#NaN} for algorithms without
+     *                       a temperature
+     */
+    void evaluated(double currentFitness, double bestFitness, double temperature);
+
+    /**
+     * Reports a fitness evaluation of an algorithm without a temperature.
+     *
+     * @param currentFitness the fitness of the current solution of the search after the
+     *                       evaluation, or of the evaluated individual for population-based
+     *                       algorithms
+     * @param bestFitness    the fitness of the best solution found so far
+     */
+    default void evaluated(final double currentFitness, final double bestFitness) {
+        evaluated(currentFitness, bestFitness, Double.NaN);
+    }
+
+    /**
+     * Marks the end of the search. Entries reported before are still written.
+     */
+    @Override
+    void close();
+}
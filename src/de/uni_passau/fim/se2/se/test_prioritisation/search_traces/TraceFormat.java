@@ -0,0 +1,20 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.search_traces;
+
+/**
+ * Enum specifying the file formats a {@link TraceRecorder} can write.
+ */
+public enum TraceFormat {
+
+    /**
+     * One line per entry with the columns {@code run,evaluation,current,best,temperature}, preceded
+     * by a header line. Runs are identified by name.
+     */
+    CSV,
+
+    /**
+     * One big-endian record of 36 bytes per entry: the run as {@code int}, the evaluation as
+     * {@code long}, and the current fitness, best fitness and temperature as {@code double}. Runs
+     * are identified by the order in which they were opened, starting at 0.
+     */
+    BINARY
+}
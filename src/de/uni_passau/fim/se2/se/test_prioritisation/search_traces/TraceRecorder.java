@@ -0,0 +1,303 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.search_traces;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records the traces of any number of searches into a single file. Every search reports to a
+ * trace of its own, which is opened by {@link #open(String)} and buffers the entries in a
+ * preallocated ring buffer. A background thread drains the buffers of all traces and writes the
+ * entries in the given {@link TraceFormat}, so the searches neither format nor write anything
+ * themselves, and they never contend for a lock.
+ * <p>
+ * Only every {@code sampling}-th evaluation of a search is recorded, starting with the first one.
+ * If the buffer of a trace is full, its search waits until the writer has caught up, so no entry
+ * is lost.
+ */
+public final class TraceRecorder implements AutoCloseable {
+
+    /**
+     * The number of entries the buffer of every trace holds. Must be a power of two.
+     */
+    private static final int CAPACITY = 1 << 13;
+
+    /**
+     * The number of characters of CSV lines the writer collects before writing them at once.
+     */
+    private static final int LINES_LENGTH = 1 << 16;
+
+    /**
+     * How long the writer sleeps when no trace has new entries.
+     */
+    private static final long IDLE_NANOS = 1_000_000;
+
+    /**
+     * How long a search sleeps when the buffer of its trace is full.
+     */
+    private static final long FULL_NANOS = 10_000;
+
+    private final DataOutputStream out;
+    private final TraceFormat format;
+    private final int sampling;
+
+    /**
+     * The traces that may still have entries to write.
+     */
+    private final List<Trace> traces = new CopyOnWriteArrayList<>();
+
+    /**
+     * The thread writing the entries.
+     */
+    private final Thread writer;
+
+    /**
+     * The number of traces opened so far.
+     */
+    private int opened;
+
+    private volatile boolean closed;
+
+    /**
+     * The exception that stopped the writer, if any.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Creates a new recorder writing to the given file, which is replaced if it exists.
+     *
+     * @param file     the file to write the traces to
+     * @param format   the format to write the traces in
+     * @param sampling record every {@code sampling}-th evaluation of every search
+     * @throws IOException if the file cannot be created
+     */
+    public TraceRecorder(final Path file, final TraceFormat format, final int sampling) throws IOException {
+        if (file == null || format == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (sampling < 1) {
+            throw new IllegalArgumentException("Sampling interval must be greater than 0");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.format = format;
+        this.sampling = sampling;
+        if (format == TraceFormat.CSV) {
+            out.writeBytes("run,evaluation,current,best,temperature\n");
+        }
+
+        this.writer = new Thread(this::write, "search-trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the trace of a new search. Traces are numbered in the order they are opened.
+     *
+     * @param name the name of the search, used to identify its entries in CSV files
+     * @return the trace
+     */
+    public synchronized SearchTrace open(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Recorder is closed");
+        }
+        final Trace trace = new Trace(opened++, name);
+        traces.add(trace);
+        return trace;
+    }
+
+    /**
+     * Writes the entries of all traces until the recorder is closed.
+     */
+    private void write() {
+        final StringBuilder lines = new StringBuilder(LINES_LENGTH);
+        try {
+            while (true) {
+                final boolean closing = closed;
+                int written = 0;
+                for (final Trace trace : traces) {
+                    // Read before draining, so that no entry published before closing is missed.
+                    final boolean finished = trace.finished;
+                    written += trace.drain(lines);
+                    if (finished) {
+                        traces.remove(trace);
+                    }
+                }
+                if (written == 0) {
+                    if (closing) {
+                        return;
+                    }
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Writes the remaining entries of all traces and closes the file. Entries reported to traces
+     * afterwards are discarded.
+     *
+     * @throws IOException if the entries could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing search traces", e);
+        } finally {
+            out.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The trace of a single search, buffering its entries until the writer drains them. The search
+     * is the only producer, and the writer the only consumer of the buffer.
+     */
+    private final class Trace implements SearchTrace {
+
+        private final int id;
+        private final String name;
+
+        private final long[] evaluations = new long[CAPACITY];
+        private final double[] current = new double[CAPACITY];
+        private final double[] best = new double[CAPACITY];
+        private final double[] temperatures = new double[CAPACITY];
+
+        /**
+         * The number of evaluations reported so far, only accessed by the search.
+         */
+        private long evaluation;
+
+        /**
+         * The number of evaluations to report until the next one is recorded, only accessed by
+         * the search.
+         */
+        private int untilSample = 1;
+
+        /**
+         * The number of entries published so far, cached by the search.
+         */
+        private long produced;
+
+        /**
+         * The number of entries published to the writer.
+         */
+        private volatile long published;
+
+        /**
+         * The number of entries written, which frees their slots in the buffer.
+         */
+        private volatile long consumed;
+
+        /**
+         * Whether the search has finished.
+         */
+        private volatile boolean finished;
+
+        private Trace(final int id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public void evaluated(final double currentFitness, final double bestFitness, final double temperature) {
+            evaluation++;
+            if (--untilSample > 0) {
+                return;
+            }
+            untilSample = sampling;
+
+            while (produced - consumed == CAPACITY) {
+                if (closed || failure != null) {
+                    return;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(FULL_NANOS);
+            }
+
+            final int slot = (int) produced & (CAPACITY - 1);
+            evaluations[slot] = evaluation;
+            current[slot] = currentFitness;
+            best[slot] = bestFitness;
+            temperatures[slot] = temperature;
+            published = ++produced;
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+        }
+
+        /**
+         * Writes the entries published so far.
+         *
+         * @param lines scratch buffer for formatting CSV lines
+         * @return the number of entries written
+         * @throws IOException if the entries could not be written
+         */
+        private int drain(final StringBuilder lines) throws IOException {
+            final long available = published;
+            final long start = consumed;
+            for (long next = start; next < available; next++) {
+                final int slot = (int) next & (CAPACITY - 1);
+                switch (format) {
+                    case CSV -> {
+                        lines.append(name).append(',')
+                                .append(evaluations[slot]).append(',')
+                                .append(current[slot]).append(',')
+                                .append(best[slot]).append(',')
+                                .append(temperatures[slot]).append('\n');
+                        if (lines.length() >= LINES_LENGTH) {
+                            writeLines(lines);
+                        }
+                    }
+                    case BINARY -> {
+                        out.writeInt(id);
+                        out.writeLong(evaluations[slot]);
+                        out.writeDouble(current[slot]);
+                        out.writeDouble(best[slot]);
+                        out.writeDouble(temperatures[slot]);
+                    }
+                }
+            }
+            writeLines(lines);
+            consumed = available;
+            return (int) (available - start);
+        }
+
+        /**
+         * Writes the collected CSV lines and clears the buffer.
+         *
+         * @param lines the collected lines
+         * @throws IOException if the lines could not be written
+         */
+        private void writeLines(final StringBuilder lines) throws IOException {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            lines.setLength(0);
+        }
+    }
+}
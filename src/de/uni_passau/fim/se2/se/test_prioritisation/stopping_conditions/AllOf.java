@@ -0,0 +1,44 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stopping condition that stops the search only once all of several stopping conditions do,
+ * e.g., once a minimum number of fitness evaluations has been performed and the search has
+ * stagnated.
+ * <p>
+ * Its progress is the smallest progress of the conditions that limit the search budget, i.e., the
+ * progress of the budget that is going to run out last. Conditions that end the search for other
+ * reasons, such as {@link Stagnation}, do not affect the progress, so that it does not jump back
+ * and forth.
+ */
+public class AllOf extends CompositeCondition {
+
+    public AllOf(final List<StoppingCondition> conditions) {
+        super(conditions);
+    }
+
+    public AllOf(final StoppingCondition... conditions) {
+        this(Arrays.asList(conditions));
+    }
+
+    @Override
+    public boolean searchMustStop() {
+        for (final StoppingCondition condition : conditions) {
+            if (!condition.searchMustStop()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public double getProgress() {
+        double progress = 1.0;
+        for (final StoppingCondition condition : budgets()) {
+            progress = Math.min(progress, condition.getProgress());
+        }
+        return progress;
+    }
+}
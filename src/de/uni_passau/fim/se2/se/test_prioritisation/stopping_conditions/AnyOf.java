@@ -0,0 +1,43 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stopping condition that stops the search as soon as any of several stopping conditions does,
+ * e.g., after a number of fitness evaluations or a period of time, whichever comes first.
+ * <p>
+ * Its progress is the largest progress of the conditions that limit the search budget, i.e., the
+ * progress of the budget that is going to run out first. Conditions that end the search early
+ * for other reasons, such as {@link Stagnation}, do not affect the progress, so that it does not
+ * jump back and forth.
+ */
+public class AnyOf extends CompositeCondition {
+
+    public AnyOf(final List<StoppingCondition> conditions) {
+        super(conditions);
+    }
+
+    public AnyOf(final StoppingCondition... conditions) {
+        this(Arrays.asList(conditions));
+    }
+
+    @Override
+    public boolean searchMustStop() {
+        for (final StoppingCondition condition : conditions) {
+            if (condition.searchMustStop()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public double getProgress() {
+        double progress = 0.0;
+        for (final StoppingCondition condition : budgets()) {
+            progress = Math.max(progress, condition.getProgress());
+        }
+        return progress;
+    }
+}
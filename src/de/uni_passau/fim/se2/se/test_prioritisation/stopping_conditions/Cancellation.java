@@ -0,0 +1,55 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+/**
+ * Stopping condition that stops the search once it has been cancelled, typically from another
+ * thread. The search stops at its next check, i.e., after at most one more fitness evaluation or
+ * batch of evaluations, and returns the best solution found so far.
+ * <p>
+ * It does not limit the search budget, so it is usually combined with one that does via
+ * {@link AnyOf}.
+ */
+public class Cancellation implements StoppingCondition {
+    private volatile boolean cancelled;
+
+    /**
+     * Cancels the search. Has no effect if the search has already stopped.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Tells whether the search has been cancelled.
+     *
+     * @return {@code true} if the search has been cancelled, {@code false} otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Does not reset the cancellation, so a search cancelled before it started does not run.
+     */
+    @Override
+    public void notifySearchStarted() {
+    }
+
+    @Override
+    public void notifyFitnessEvaluation() {
+    }
+
+    @Override
+    public boolean searchMustStop() {
+        return cancelled;
+    }
+
+    @Override
+    public double getProgress() {
+        return cancelled ? 1.0 : 0.0;
+    }
+
+    @Override
+    public boolean limitsBudget() {
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class of stopping conditions that combine several stopping conditions, forwarding all
+ * notifications to every one of them.
+ */
+abstract class CompositeCondition implements StoppingCondition {
+
+    /**
+     * The combined stopping conditions.
+     */
+    protected final List<StoppingCondition> conditions;
+
+    /**
+     * The combined stopping conditions that limit the search budget, or all of them if none does.
+     * Only their progress is considered.
+     */
+    private final List<StoppingCondition> budgets;
+
+    /**
+     * Whether any of the combined stopping conditions limits the search budget.
+     */
+    private final boolean limitsBudget;
+
+    protected CompositeCondition(final List<StoppingCondition> conditions) {
+        if (conditions == null || conditions.isEmpty() || conditions.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Conditions must be a non-empty list of stopping conditions.");
+        }
+        this.conditions = List.copyOf(conditions);
+        final List<StoppingCondition> budgets = this.conditions.stream()
+                .filter(StoppingCondition::limitsBudget)
+                .toList();
+        this.limitsBudget = !budgets.isEmpty();
+        this.budgets = limitsBudget ? budgets : this.conditions;
+    }
+
+    @Override
+    public void notifySearchStarted() {
+        for (final StoppingCondition condition : conditions) {
+            condition.notifySearchStarted();
+        }
+    }
+
+    @Override
+    public void notifyFitnessEvaluation() {
+        for (final StoppingCondition condition : conditions) {
+            condition.notifyFitnessEvaluation();
+        }
+    }
+
+    @Override
+    public void notifyImprovement(final double fitness) {
+        for (final StoppingCondition condition : conditions) {
+            condition.notifyImprovement(fitness);
+        }
+    }
+
+    @Override
+    public boolean limitsBudget() {
+        return limitsBudget;
+    }
+
+    /**
+     * Returns the combined stopping conditions whose progress is considered, i.e., those that
+     * limit the search budget, or all of them if none does.
+     *
+     * @return the stopping conditions whose progress is considered
+     */
+    protected List<StoppingCondition> budgets() {
+        return budgets;
+    }
+}
@@ -2,6 +2,8 @@ package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
 
 /**
  * Stopping condition that stops the search after a specified number of fitness evaluations.
+ * Its counter is not synchronised, so it must only be used by a single search. Searches running
+ * concurrently draw from a common budget through a {@link SharedBudget}.
  */
 public class MaxFitnessEvaluations implements StoppingCondition {
     private final int maxFitnessEvaluations;
@@ -0,0 +1,100 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+import java.time.Duration;
+
+/**
+ * Stopping condition that stops the search after a specified amount of wall-clock time.
+ * <p>
+ * Reading the clock costs about as much as a cheap fitness evaluation, so the clock is not read on
+ * every evaluation. Instead, the number of evaluations between two reads is doubled or halved
+ * after every read, so that the clock is read about once per {@link #CHECK_INTERVAL_NANOS}. Thus,
+ * the search overshoots the time limit by about that interval, unless the duration of a fitness
+ * evaluation changes abruptly.
+ */
+public class MaxTime implements StoppingCondition {
+
+    /**
+     * The time aimed for between two reads of the clock.
+     */
+    private static final long CHECK_INTERVAL_NANOS = 1_000_000;
+
+    /**
+     * The maximum number of fitness evaluations between two reads of the clock.
+     */
+    private static final int MAX_STRIDE = 1 << 16;
+
+    private final long maxNanos;
+
+    /**
+     * The time the search started at.
+     */
+    private long start;
+
+    /**
+     * The time of the last read of the clock.
+     */
+    private long lastCheck;
+
+    /**
+     * The time elapsed since the start of the search at the last read of the clock.
+     */
+    private long elapsedNanos;
+
+    /**
+     * The number of fitness evaluations between two reads of the clock.
+     */
+    private int stride;
+
+    /**
+     * The number of fitness evaluations until the next read of the clock.
+     */
+    private int untilCheck;
+
+    public MaxTime(final Duration maxTime) {
+        if (maxTime == null) {
+            throw new IllegalArgumentException("Max time cannot be null.");
+        }
+        if (maxTime.isNegative() || maxTime.isZero()) {
+            throw new IllegalArgumentException("Max time must be greater than 0.");
+        }
+        this.maxNanos = maxTime.toNanos();
+    }
+
+    @Override
+    public void notifySearchStarted() {
+        start = System.nanoTime();
+        lastCheck = start;
+        elapsedNanos = 0;
+        stride = 1;
+        untilCheck = 1;
+    }
+
+    @Override
+    public void notifyFitnessEvaluation() {
+        if (--untilCheck > 0) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        final long sinceLastCheck = now - lastCheck;
+        lastCheck = now;
+        elapsedNanos = now - start;
+
+        if (sinceLastCheck < CHECK_INTERVAL_NANOS / 2 && stride < MAX_STRIDE) {
+            stride *= 2;
+        } else if (sinceLastCheck > 2 * CHECK_INTERVAL_NANOS && stride > 1) {
+            stride /= 2;
+        }
+        untilCheck = stride;
+    }
+
+    @Override
+    public boolean searchMustStop() {
+        return elapsedNanos >= maxNanos;
+    }
+
+    @Override
+    public double getProgress() {
+        return Math.min(1.0, (double) elapsedNanos / maxNanos);
+    }
+}
@@ -0,0 +1,172 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A budget of fitness evaluations shared by any number of searches running concurrently, e.g., a
+ * portfolio of search algorithms. Every search draws from the budget through a stopping condition
+ * of its own, see {@link #newCondition()}.
+ * <p>
+ * To keep the searches from contending for the budget, they do not draw single evaluations from
+ * it. Instead, a condition reserves up to {@code slack} evaluations at once and hands them out to
+ * its search without any synchronisation. A condition makes its first reservation as soon as it is
+ * created, so every search whose condition is created before any search starts gets at least
+ * {@code slack} evaluations if the budget suffices. The last reservations are cut to what is left
+ * of the budget, so searches that check whether they have to stop before every evaluation together
+ * never perform more evaluations than the budget allows. An evaluation performed without checking first
+ * draws from the reservation all the same, reserving on demand. Once the budget is exhausted, each
+ * search may overdraw it by up to {@code slack} such evaluations, which are counted separately,
+ * see {@link #overdraft()}, and any further one is rejected. In turn, a search that stops for
+ * other reasons, e.g., because it reached a {@link TargetFitness}, may leave up to {@code slack}
+ * of its reserved evaluations unused, which are lost to the others.
+ */
+public final class SharedBudget {
+
+    private final long maxFitnessEvaluations;
+
+    /**
+     * The number of evaluations a condition reserves at once.
+     */
+    private final int slack;
+
+    /**
+     * The number of evaluations reserved so far, which may exceed the budget once it is exhausted,
+     * as concurrent reservations are only cut afterwards.
+     */
+    private final AtomicLong reserved = new AtomicLong();
+
+    /**
+     * The number of evaluations performed beyond the exhausted budget.
+     */
+    private final AtomicLong overdraft = new AtomicLong();
+
+    /**
+     * Creates a new shared budget.
+     *
+     * @param maxFitnessEvaluations the number of fitness evaluations all searches may perform together
+     * @param slack                 the number of evaluations a search reserves at once, which bounds
+     *                              both the evaluations it may leave unused and those it may
+     *                              overdraw
+     */
+    public SharedBudget(final long maxFitnessEvaluations, final int slack) {
+        if (maxFitnessEvaluations <= 0) {
+            throw new IllegalArgumentException("Max fitness evaluations must be greater than 0.");
+        }
+        if (slack <= 0) {
+            throw new IllegalArgumentException("Slack must be greater than 0.");
+        }
+        this.maxFitnessEvaluations = maxFitnessEvaluations;
+        this.slack = slack;
+    }
+
+    /**
+     * Creates a new stopping condition drawing from this budget, which reserves the first
+     * evaluations of its search right away. Every search needs a condition of its own, which must
+     * only be used by the thread running the search once it has been handed over.
+     *
+     * @return the stopping condition
+     */
+    public StoppingCondition newCondition() {
+        return new Share();
+    }
+
+    /**
+     * Returns the number of evaluations reserved by all searches so far. It includes the
+     * evaluations reserved but not yet performed, of which there are at most {@code slack} per
+     * search.
+     *
+     * @return the number of reserved evaluations
+     */
+    public long reservedEvaluations() {
+        return Math.min(reserved.get(), maxFitnessEvaluations);
+    }
+
+    /**
+     * Returns the number of evaluations performed beyond the exhausted budget by searches that did
+     * not check whether they have to stop first. It is at most {@code slack} per search, so the
+     * searches together perform at most {@code reservedEvaluations() + overdraft()} evaluations.
+     *
+     * @return the number of overdrawn evaluations
+     */
+    public long overdraft() {
+        return overdraft.get();
+    }
+
+    /**
+     * Reserves up to {@code slack} evaluations.
+     *
+     * @return the number of evaluations reserved, 0 if the budget is exhausted
+     */
+    private int reserve() {
+        // Once the budget is exhausted, searches only read the counter, so they do not contend.
+        // Overdrafts go to a counter of their own, written at most slack times per search.
+        if (reserved.get() >= maxFitnessEvaluations) {
+            return 0;
+        }
+        final long before = reserved.getAndAdd(slack);
+        return (int) Math.max(0, Math.min(slack, maxFitnessEvaluations - before));
+    }
+
+    /**
+     * The stopping condition of a single search, which hands out the evaluations it has reserved.
+     * The search should check whether it has to stop before every evaluation. Otherwise, it may
+     * overdraw the exhausted budget by up to {@code slack} evaluations, after which any further
+     * evaluation is rejected.
+     */
+    private final class Share implements StoppingCondition {
+
+        /**
+         * The number of evaluations reserved but not yet performed.
+         */
+        private int available;
+
+        /**
+         * The number of evaluations this search performed beyond the exhausted budget.
+         */
+        private int overdrawn;
+
+        private Share() {
+            available = reserve();
+        }
+
+        @Override
+        public void notifySearchStarted() {
+            // The evaluations performed so far are gone for good, unlike those still available.
+        }
+
+        @Override
+        public void notifyFitnessEvaluation() {
+            if (available == 0) {
+                available = reserve();
+            }
+            if (available > 0) {
+                available--;
+                return;
+            }
+            // The search did not check whether it has to stop, so it overdraws the budget.
+            if (overdrawn == slack) {
+                throw new IllegalStateException("Search overdrew the shared budget by more than " + slack
+                        + " evaluations without checking whether it has to stop");
+            }
+            overdrawn++;
+            overdraft.incrementAndGet();
+        }
+
+        @Override
+        public boolean searchMustStop() {
+            if (available == 0) {
+                available = reserve();
+            }
+            return available == 0;
+        }
+
+        /**
+         * Returns the fraction of the shared budget consumed by all searches, which keeps
+         * progress-driven searches such as simulated annealing in step with the others.
+         */
+        @Override
+        public double getProgress() {
+            return Math.min(1.0, (double) (reservedEvaluations() - available) / maxFitnessEvaluations);
+        }
+    }
+}
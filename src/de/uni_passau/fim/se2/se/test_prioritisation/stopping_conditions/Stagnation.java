@@ -0,0 +1,55 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+/**
+ * Stopping condition that stops the search once it has not found a better solution for a
+ * specified number of fitness evaluations.
+ * <p>
+ * Its progress is the fraction of that number of evaluations performed since the last
+ * improvement, which drops whenever the search improves. It does not limit the search budget.
+ */
+public class Stagnation implements StoppingCondition {
+    private final int maxUnimprovedEvaluations;
+    private int unimprovedEvaluations;
+    private double bestFitness;
+
+    public Stagnation(final int maxUnimprovedEvaluations) {
+        if (maxUnimprovedEvaluations <= 0) {
+            throw new IllegalArgumentException("Max unimproved evaluations must be greater than 0.");
+        }
+        this.maxUnimprovedEvaluations = maxUnimprovedEvaluations;
+    }
+
+    @Override
+    public void notifySearchStarted() {
+        unimprovedEvaluations = 0;
+        bestFitness = Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public void notifyFitnessEvaluation() {
+        unimprovedEvaluations++;
+    }
+
+    @Override
+    public void notifyImprovement(final double fitness) {
+        if (fitness > bestFitness) {
+            bestFitness = fitness;
+            unimprovedEvaluations = 0;
+        }
+    }
+
+    @Override
+    public boolean searchMustStop() {
+        return unimprovedEvaluations >= maxUnimprovedEvaluations;
+    }
+
+    @Override
+    public double getProgress() {
+        return Math.min(1.0, (double) unimprovedEvaluations / maxUnimprovedEvaluations);
+    }
+
+    @Override
+    public boolean limitsBudget() {
+        return false;
+    }
+}
@@ -22,6 +22,18 @@ public interface StoppingCondition {
      */
     void notifyFitnessEvaluation();
 
+    /**
+     * Notifies this stopping condition that the search has found a solution that is better than any
+     * solution found before. This method is intended to be called by the search algorithm to which the
+     * stopping condition is subscribed, right after {@link #notifyFitnessEvaluation()} for the fitness
+     * evaluation that found the solution.
+     * Stopping conditions that do not depend on the quality of solutions ignore it, which is the default.
+     *
+     * @param fitness the fitness of the new best solution, where higher values are better
+     */
+    default void notifyImprovement(final double fitness) {
+    }
+
     /**
      * Tells the search algorithm whether it has exhausted its search budget and has to stop.
      *
@@ -36,4 +48,16 @@ public interface StoppingCondition {
      * @return the fraction of the search budget that has already been consumed
      */
     double getProgress();
+
+    /**
+     * Tells whether this stopping condition limits the search budget, i.e., whether its progress tells how
+     * much of the search is over. Stopping conditions that end a search early for other reasons, such as a
+     * lack of improvement, do not limit the budget, and composite stopping conditions ignore their progress.
+     * By default, stopping conditions limit the budget.
+     *
+     * @return {@code true} if this stopping condition limits the budget, {@code false} otherwise
+     */
+    default boolean limitsBudget() {
+        return true;
+    }
 }
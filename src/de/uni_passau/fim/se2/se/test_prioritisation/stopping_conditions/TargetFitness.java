@@ -0,0 +1,50 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+/**
+ * Stopping condition that stops the search once it has found a solution whose fitness reaches a
+ * specified target.
+ * <p>
+ * How close the search is to the target says little about how long it will take to get there,
+ * so its progress is 0 until the target is reached, and 1 afterwards. It does not limit the search
+ * budget.
+ */
+public class TargetFitness implements StoppingCondition {
+    private final double targetFitness;
+    private boolean reached;
+
+    public TargetFitness(final double targetFitness) {
+        if (Double.isNaN(targetFitness)) {
+            throw new IllegalArgumentException("Target fitness must be a number.");
+        }
+        this.targetFitness = targetFitness;
+    }
+
+    @Override
+    public void notifySearchStarted() {
+        reached = false;
+    }
+
+    @Override
+    public void notifyFitnessEvaluation() {
+    }
+
+    @Override
+    public void notifyImprovement(final double fitness) {
+        reached |= fitness >= targetFitness;
+    }
+
+    @Override
+    public boolean searchMustStop() {
+        return reached;
+    }
+
+    @Override
+    public double getProgress() {
+        return reached ? 1.0 : 0.0;
+    }
+
+    @Override
+    public boolean limitsBudget() {
+        return false;
+    }
+}
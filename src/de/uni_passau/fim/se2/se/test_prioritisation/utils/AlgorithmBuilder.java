@@ -1,26 +1,233 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.utils;
 
 import de.uni_passau.fim.se2.se.test_prioritisation.algorithms.*;
-import de.uni_passau.fim.se2.se.test_prioritisation.crossover.Crossover;
-import de.uni_passau.fim.se2.se.test_prioritisation.crossover.OrderCrossover;
+import de.uni_passau.fim.se2.se.test_prioritisation.anytime.ImprovementListener;
+import de.uni_passau.fim.se2.se.test_prioritisation.cooling_schedules.*;
+import de.uni_passau.fim.se2.se.test_prioritisation.crossover.*;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
 import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrderGenerator;
 import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.APLC;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.CachedFitnessFunction;
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.CoverageMatrix;
 import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.FitnessFunction;
 import de.uni_passau.fim.se2.se.test_prioritisation.mutations.Mutation;
 import de.uni_passau.fim.se2.se.test_prioritisation.mutations.ShiftToBeginningMutation;
 import de.uni_passau.fim.se2.se.test_prioritisation.parent_selection.ParentSelection;
 import de.uni_passau.fim.se2.se.test_prioritisation.parent_selection.TournamentSelection;
+import de.uni_passau.fim.se2.se.test_prioritisation.search_traces.SearchTrace;
 import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.MaxFitnessEvaluations;
 import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
 
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
 
 /**
  * Utility class for instantiating search algorithms.
  */
 public class AlgorithmBuilder {
 
+    /**
+     * Configures the island model of an {@link IslandGeneticAlgorithm}.
+     *
+     * @param islands           the number of islands
+     * @param migrationInterval the number of generations between two migrations
+     * @param migrants          the number of individuals every island sends per migration
+     * @param topology          which island every island sends its migrants to
+     */
+    public record IslandModel(int islands, int migrationInterval, int migrants, MigrationTopology topology) {
+
+        /**
+         * The island model used unless specified otherwise.
+         */
+        public static final IslandModel DEFAULT = new IslandModel(4, 10, 2, MigrationTopology.RING);
+    }
+
+    /**
+     * Configures the temperature of a {@link SimulatedAnnealing} algorithm.
+     *
+     * @param coolingSchedule    the cooling schedule
+     * @param initialTemperature the initial temperature, or 0 to calibrate it for the problem
+     *                           instance
+     */
+    public record AnnealingModel(CoolingScheduleType coolingSchedule, double initialTemperature) {
+
+        /**
+         * The annealing configuration used unless specified otherwise.
+         */
+        public static final AnnealingModel DEFAULT = new AnnealingModel(CoolingScheduleType.GEOMETRIC, 0);
+    }
+
+    /**
+     * Configures the temperature ladder of a {@link ParallelTempering} algorithm.
+     *
+     * @param replicas         the number of replicas
+     * @param minTemperature   the temperature of the coldest replica
+     * @param maxTemperature   the temperature of the hottest replica
+     * @param exchangeInterval the number of steps every replica performs between two exchanges
+     */
+    public record TemperingModel(int replicas, double minTemperature, double maxTemperature, int exchangeInterval) {
+
+        /**
+         * The temperature ladder used unless specified otherwise.
+         */
+        public static final TemperingModel DEFAULT = new TemperingModel(4, 0.0001, 0.01, 100);
+    }
+
+    /**
+     * Configures how search algorithms are built, beyond the problem instance, the budget and the
+     * source of randomness. Every algorithm only uses the settings that apply to it. Start from
+     * {@link #DEFAULT} and change what is needed, e.g.,
+     * {@code Settings.DEFAULT.withCache(1000, false).withTrace(trace)}.
+     *
+     * @param cacheSize      the number of test orders to memoise in a {@link CachedFitnessFunction},
+     *                       or 0 to disable memoisation
+     * @param billCacheHits  whether fitness evaluations answered from the cache count towards the
+     *                       budget of the stopping condition
+     * @param pool           the pool island model genetic algorithms evolve their islands in and
+     *                       parallel tempering anneals its replicas in, which may be shared by
+     *                       several search algorithms; batches of test orders are evaluated in the
+     *                       pool of the APLC fitness function instead
+     * @param islandModel    the island model of island model genetic algorithms
+     * @param crossover      the crossover operator of genetic algorithms
+     * @param improvement    the improvement strategy of hill climbers
+     * @param annealingModel the cooling schedule of simulated annealing
+     * @param temperingModel the temperature ladder of parallel tempering
+     * @param trace          the trace to report every evaluation that counts towards the budget to
+     * @param listener       the listener to report every new best solution to
+     */
+    public record Settings(
+            int cacheSize,
+            boolean billCacheHits,
+            ForkJoinPool pool,
+            IslandModel islandModel,
+            CrossoverType crossover,
+            ImprovementStrategy improvement,
+            AnnealingModel annealingModel,
+            TemperingModel temperingModel,
+            SearchTrace trace,
+            ImprovementListener<TestOrder> listener) {
+
+        /**
+         * The settings used unless specified otherwise: no cache, islands and replicas run in the
+         * common pool, the default models and operators, and neither tracing nor listening.
+         */
+        public static final Settings DEFAULT = new Settings(0, true, ForkJoinPool.commonPool(), IslandModel.DEFAULT,
+                CrossoverType.ORDER, ImprovementStrategy.FIRST_IMPROVEMENT, AnnealingModel.DEFAULT,
+                TemperingModel.DEFAULT, SearchTrace.DISABLED, ImprovementListener.disabled());
+
+        public Settings {
+            if (pool == null || islandModel == null || crossover == null || improvement == null
+                    || annealingModel == null || temperingModel == null || trace == null || listener == null) {
+                throw new IllegalArgumentException("Arguments cannot be null");
+            }
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("Cache size cannot be negative");
+            }
+        }
+
+        /**
+         * Returns these settings with the given memoisation of fitness values.
+         *
+         * @param cacheSize     the number of test orders to memoise, or 0 to disable memoisation
+         * @param billCacheHits whether fitness evaluations answered from the cache count towards
+         *                      the budget
+         * @return the changed settings
+         */
+        public Settings withCache(final int cacheSize, final boolean billCacheHits) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given pool.
+         *
+         * @param pool the pool to run islands and replicas in
+         * @return the changed settings
+         */
+        public Settings withPool(final ForkJoinPool pool) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given island model.
+         *
+         * @param islandModel the island model of island model genetic algorithms
+         * @return the changed settings
+         */
+        public Settings withIslandModel(final IslandModel islandModel) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given crossover operator.
+         *
+         * @param crossover the crossover operator of genetic algorithms
+         * @return the changed settings
+         */
+        public Settings withCrossover(final CrossoverType crossover) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given improvement strategy.
+         *
+         * @param improvement the improvement strategy of hill climbers
+         * @return the changed settings
+         */
+        public Settings withImprovement(final ImprovementStrategy improvement) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given cooling schedule.
+         *
+         * @param annealingModel the cooling schedule of simulated annealing
+         * @return the changed settings
+         */
+        public Settings withAnnealingModel(final AnnealingModel annealingModel) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given temperature ladder.
+         *
+         * @param temperingModel the temperature ladder of parallel tempering
+         * @return the changed settings
+         */
+        public Settings withTemperingModel(final TemperingModel temperingModel) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given trace.
+         *
+         * @param trace the trace to report the evaluations to
+         * @return the changed settings
+         */
+        public Settings withTrace(final SearchTrace trace) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+
+        /**
+         * Returns these settings with the given listener.
+         *
+         * @param listener the listener to report improvements to
+         * @return the changed settings
+         */
+        public Settings withListener(final ImprovementListener<TestOrder> listener) {
+            return new Settings(cacheSize, billCacheHits, pool, islandModel, crossover, improvement, annealingModel,
+                    temperingModel, trace, listener);
+        }
+    }
+
     /**
      * Builds the specified search {@code algorithm} using the given {@code random} number
      * generator, {@code stoppingCondition} and {@code coverageMatrix}.
@@ -34,14 +241,60 @@ public class AlgorithmBuilder {
     public static SearchAlgorithm<TestOrder> build(
             final SearchAlgorithmType algorithm,
             int maxFitnessEvaluations,
-            final boolean[][] coverageMatrix,
-            final Random random) {
-        StoppingCondition stoppingCondition = new MaxFitnessEvaluations(maxFitnessEvaluations);
+            final CoverageMatrix coverageMatrix,
+            final SplittableGenerator random) {
+        return build(algorithm, new MaxFitnessEvaluations(maxFitnessEvaluations),
+                new APLC(coverageMatrix, Settings.DEFAULT.pool()), random, Settings.DEFAULT);
+    }
+
+    /**
+     * Builds the specified search {@code algorithm} using the given {@code random} number
+     * generator, {@code stoppingCondition} and {@code aplc} fitness function, configured by the
+     * given {@code settings}.
+     * <p>
+     * The {@code stoppingCondition} is used by a single search only, since it keeps the state of
+     * that search. The {@code aplc} fitness function, on the other hand, may be shared by any
+     * number of searches, which saves preparing its coverage matrix for every one of them. It
+     * evaluates batches of test orders in its own pool.
+     *
+     * @param algorithm         the algorithm to build
+     * @param stoppingCondition the condition determining when the search stops
+     * @param aplc              the fitness function representing the problem instance
+     * @param random            the RNG instance to use
+     * @param settings          the settings of the algorithm
+     * @return the instantiated search algorithm
+     */
+    public static SearchAlgorithm<TestOrder> build(
+            final SearchAlgorithmType algorithm,
+            final StoppingCondition stoppingCondition,
+            final APLC aplc,
+            final SplittableGenerator random,
+            final Settings settings) {
+        if (stoppingCondition == null || aplc == null || settings == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+
+        StoppingCondition budget = stoppingCondition;
+        FitnessFunction<TestOrder> fitnessFunction = aplc;
+        if (settings.cacheSize() > 0) {
+            final CachedFitnessFunction cache = new CachedFitnessFunction(fitnessFunction, settings.cacheSize());
+            budget = cache.budget(stoppingCondition, settings.billCacheHits());
+            fitnessFunction = cache;
+        }
+
+        final int numberOfTests = aplc.numberOfTests();
         return switch (algorithm) {
-            case RANDOM_SEARCH -> buildRandomSearch(stoppingCondition, coverageMatrix, random);
-            case RANDOM_WALK -> buildRandomWalk(stoppingCondition, coverageMatrix, random);
-            case SIMULATED_ANNEALING -> buildSimulatedAnnealing(stoppingCondition, coverageMatrix, random);
-            case SIMPLE_GENETIC_ALGORITHM -> buildSimpleGeneticAlgorithm(stoppingCondition, coverageMatrix, random);
+            case RANDOM_SEARCH -> buildRandomSearch(budget, fitnessFunction, numberOfTests, random, settings);
+            case RANDOM_WALK -> buildRandomWalk(budget, fitnessFunction, numberOfTests, random, settings);
+            case SIMULATED_ANNEALING -> buildSimulatedAnnealing(budget, fitnessFunction, numberOfTests, random,
+                    settings);
+            case SIMPLE_GENETIC_ALGORITHM -> buildSimpleGeneticAlgorithm(budget, fitnessFunction, numberOfTests,
+                    random, settings);
+            case ISLAND_GENETIC_ALGORITHM -> buildIslandGeneticAlgorithm(budget, fitnessFunction, numberOfTests,
+                    random, settings);
+            case HILL_CLIMBING -> buildHillClimbing(budget, aplc, numberOfTests, random, settings);
+            case PARALLEL_TEMPERING -> buildParallelTempering(budget, fitnessFunction, numberOfTests, random,
+                    settings);
         };
     }
 
@@ -50,17 +303,21 @@ public class AlgorithmBuilder {
      * test case prioritization problem.
      *
      * @param stoppingCondition the stopping condition to use
-     * @param coverageMatrix    the coverage matrix representing the problem instance
+     * @param fitnessFunction   the fitness function to use
+     * @param numberOfTests     the number of test cases of the problem instance
      * @param random            the RNG instance to use
+     * @param settings          the trace and listener to use
      * @return the instantiated Random Search algorithm
      */
     private static RandomSearch<TestOrder> buildRandomSearch(
             final StoppingCondition stoppingCondition,
-            final boolean[][] coverageMatrix,
-            final Random random) {
-        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(coverageMatrix, random);
-        final FitnessFunction<TestOrder> fitnessFunction = new APLC(coverageMatrix);
-        return new RandomSearch<>(stoppingCondition, encodingGenerator, fitnessFunction);
+            final FitnessFunction<TestOrder> fitnessFunction,
+            final int numberOfTests,
+            final RandomGenerator random,
+            final Settings settings) {
+        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(numberOfTests, random);
+        return new RandomSearch<>(stoppingCondition, encodingGenerator, fitnessFunction, settings.trace(),
+                settings.listener());
     }
 
     /**
@@ -68,17 +325,21 @@ public class AlgorithmBuilder {
      * test case prioritization problem.
      *
      * @param stoppingCondition the stopping condition to use
-     * @param coverageMatrix    the coverage matrix representing the problem instance
+     * @param fitnessFunction   the fitness function to use
+     * @param numberOfTests     the number of test cases of the problem instance
      * @param random            the RNG instance to use
+     * @param settings          the trace and listener to use
      * @return the instantiated Random Walk algorithm
      */
     private static RandomWalk<TestOrder> buildRandomWalk(
             final StoppingCondition stoppingCondition,
-            final boolean[][] coverageMatrix,
-            final Random random) {
-        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(coverageMatrix, random);
-        final FitnessFunction<TestOrder> fitnessFunction = new APLC(coverageMatrix);
-        return new RandomWalk<>(stoppingCondition, encodingGenerator, fitnessFunction);
+            final FitnessFunction<TestOrder> fitnessFunction,
+            final int numberOfTests,
+            final RandomGenerator random,
+            final Settings settings) {
+        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(numberOfTests, random);
+        return new RandomWalk<>(stoppingCondition, encodingGenerator, fitnessFunction, settings.trace(),
+                settings.listener());
 
     }
 
@@ -87,19 +348,30 @@ public class AlgorithmBuilder {
      * test case prioritization problem.
      *
      * @param stoppingCondition the stopping condition to use
-     * @param coverageMatrix    the coverage matrix representing the problem instance
+     * @param fitnessFunction   the fitness function to use
+     * @param numberOfTests     the number of test cases of the problem instance
      * @param random            the RNG instance to use
+     * @param settings          the cooling schedule, trace and listener to use
      * @return the instantiated Simulated Annealing algorithm
      */
     private static SearchAlgorithm<TestOrder> buildSimulatedAnnealing(
             final StoppingCondition stoppingCondition,
-            final boolean[][] coverageMatrix,
-            final Random random) {
-        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(coverageMatrix, random);
-        final FitnessFunction<TestOrder> fitnessFunction = new APLC(coverageMatrix);
-        final int numTestCases = coverageMatrix.length;
-        int degreesOfFreedom = Utils.degreesOfFreedom(numTestCases);
-        return new SimulatedAnnealing<>(stoppingCondition, encodingGenerator, fitnessFunction, degreesOfFreedom, random);
+            final FitnessFunction<TestOrder> fitnessFunction,
+            final int numberOfTests,
+            final RandomGenerator random,
+            final Settings settings) {
+        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(numberOfTests, random);
+        int degreesOfFreedom = Utils.degreesOfFreedom(numberOfTests);
+        final AnnealingModel annealingModel = settings.annealingModel();
+        final CoolingSchedule coolingSchedule = switch (annealingModel.coolingSchedule()) {
+            case GEOMETRIC -> new GeometricCooling(GeometricCooling.DEFAULT_FINAL_RATIO);
+            case LUNDY_MEES -> new LundyMeesCooling(LundyMeesCooling.DEFAULT_FINAL_RATIO);
+            // A frozen search has rejected about as many neighbours as a test order has.
+            case ADAPTIVE -> new AdaptiveCooling(SimulatedAnnealing.INITIAL_ACCEPTANCE,
+                    AdaptiveCooling.DEFAULT_FINAL_ACCEPTANCE, degreesOfFreedom);
+        };
+        return new SimulatedAnnealing<>(stoppingCondition, encodingGenerator, fitnessFunction, coolingSchedule,
+                annealingModel.initialTemperature(), random, settings.trace(), settings.listener());
     }
 
     /**
@@ -107,32 +379,130 @@ public class AlgorithmBuilder {
      * test case prioritization problem.
      *
      * @param stoppingCondition the stopping condition to use
-     * @param coverageMatrix    the coverage matrix representing the problem instance
+     * @param fitnessFunction   the fitness function to use
+     * @param numberOfTests     the number of test cases of the problem instance
      * @param random            the RNG instance to use
+     * @param settings          the crossover operator, trace and listener to use
      * @return the instantiated Simple Genetic Algorithm
      */
     private static SimpleGeneticAlgorithm<TestOrder> buildSimpleGeneticAlgorithm(
             final StoppingCondition stoppingCondition,
-            final boolean[][] coverageMatrix,
-            final Random random) {
-        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(coverageMatrix, random);
-        final APLC fitnessFunction = new APLC(coverageMatrix);
-        final Crossover<TestOrder> crossover = new OrderCrossover(random);
-        final ParentSelection<TestOrder> parentSelection = new TournamentSelection(fitnessFunction, random);
-        return new SimpleGeneticAlgorithm<>(stoppingCondition, encodingGenerator, fitnessFunction, crossover, parentSelection, random);
+            final FitnessFunction<TestOrder> fitnessFunction,
+            final int numberOfTests,
+            final RandomGenerator random,
+            final Settings settings) {
+        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(numberOfTests, random);
+        final Crossover<TestOrder> crossover = buildCrossover(settings.crossover(), random);
+        final ParentSelection<TestOrder> parentSelection = new TournamentSelection(random);
+        return new SimpleGeneticAlgorithm<>(stoppingCondition, encodingGenerator, fitnessFunction, crossover, parentSelection, random,
+                settings.trace(), settings.listener());
+    }
+
+    /**
+     * Returns an implementation of the Island Model Genetic Algorithm to find a solution for the
+     * test case prioritization problem. Every island gets its own operators, which draw from the
+     * source of randomness of the island.
+     *
+     * @param stoppingCondition the stopping condition to use
+     * @param fitnessFunction   the fitness function to use
+     * @param numberOfTests     the number of test cases of the problem instance
+     * @param random            the RNG instance to use
+     * @param settings          the pool, island model, crossover operator, trace and
+     *                          listener to use
+     * @return the instantiated Island Model Genetic Algorithm
+     */
+    private static IslandGeneticAlgorithm<TestOrder> buildIslandGeneticAlgorithm(
+            final StoppingCondition stoppingCondition,
+            final FitnessFunction<TestOrder> fitnessFunction,
+            final int numberOfTests,
+            final SplittableGenerator random,
+            final Settings settings) {
+        final IslandModel islandModel = settings.islandModel();
+        return new IslandGeneticAlgorithm<>(stoppingCondition, fitnessFunction,
+                islandRandom -> new IslandGeneticAlgorithm.Operators<>(
+                        buildTestOrderGenerator(numberOfTests, islandRandom),
+                        buildCrossover(settings.crossover(), islandRandom),
+                        new ShiftToBeginningMutation(islandRandom),
+                        new TournamentSelection(islandRandom)),
+                random, settings.pool(), islandModel.islands(), SimpleGeneticAlgorithm.DEFAULT_POPULATION_SIZE,
+                islandModel.migrationInterval(), islandModel.migrants(), islandModel.topology(), settings.trace(),
+                settings.listener());
+    }
+
+    /**
+     * Returns an implementation of the Hill Climbing algorithm to find a solution for the test
+     * case prioritization problem. The hill climber evaluates its moves incrementally on the
+     * given APLC fitness function, without going through a cache.
+     *
+     * @param stoppingCondition the stopping condition to use
+     * @param aplc              the fitness function to evaluate the moves on
+     * @param numberOfTests     the number of test cases of the problem instance
+     * @param random            the RNG instance to use
+     * @param settings          the improvement strategy, trace and listener to use
+     * @return the instantiated Hill Climbing algorithm
+     */
+    private static HillClimbing buildHillClimbing(
+            final StoppingCondition stoppingCondition,
+            final APLC aplc,
+            final int numberOfTests,
+            final RandomGenerator random,
+            final Settings settings) {
+        final TestOrderGenerator encodingGenerator = buildTestOrderGenerator(numberOfTests, random);
+        return new HillClimbing(stoppingCondition, encodingGenerator, aplc.neighbourhood(), settings.improvement(),
+                settings.trace(), settings.listener());
+    }
+
+    /**
+     * Returns an implementation of Parallel Tempering to find a solution for the test case
+     * prioritization problem. Every replica gets its own test order generator, whose test orders
+     * mutate with the source of randomness of the replica.
+     *
+     * @param stoppingCondition the stopping condition to use
+     * @param fitnessFunction   the fitness function to use
+     * @param numberOfTests     the number of test cases of the problem instance
+     * @param random            the RNG instance to use
+     * @param settings          the pool, temperature ladder, trace and listener to use
+     * @return the instantiated Parallel Tempering algorithm
+     */
+    private static ParallelTempering<TestOrder> buildParallelTempering(
+            final StoppingCondition stoppingCondition,
+            final FitnessFunction<TestOrder> fitnessFunction,
+            final int numberOfTests,
+            final SplittableGenerator random,
+            final Settings settings) {
+        final TemperingModel temperingModel = settings.temperingModel();
+        return new ParallelTempering<>(stoppingCondition,
+                replicaRandom -> buildTestOrderGenerator(numberOfTests, replicaRandom),
+                fitnessFunction, random, settings.pool(), temperingModel.replicas(), temperingModel.minTemperature(),
+                temperingModel.maxTemperature(), temperingModel.exchangeInterval(), settings.trace(), settings.listener());
+    }
+
+    /**
+     * Builds a crossover operator of the given type.
+     *
+     * @param crossoverType the crossover operator to build
+     * @param random        the RNG instance to use
+     * @return the instantiated crossover operator
+     */
+    private static Crossover<TestOrder> buildCrossover(final CrossoverType crossoverType, final RandomGenerator random) {
+        return switch (crossoverType) {
+            case ORDER -> new OrderCrossover(random);
+            case PARTIALLY_MAPPED -> new PartiallyMappedCrossover(random);
+            case CYCLE -> new CycleCrossover();
+            case EDGE_RECOMBINATION -> new EdgeRecombinationCrossover(random);
+        };
     }
 
     /**
      * Builds a test order generator.
      *
-     * @param coverageMatrix the coverage matrix representing the problem instance
-     * @param random         the RNG instance to use
+     * @param numberOfTests the number of test cases of the problem instance
+     * @param random        the RNG instance to use
      * @return the instantiated test order generator
      */
-    private static TestOrderGenerator buildTestOrderGenerator(final boolean[][] coverageMatrix, final Random random) {
+    private static TestOrderGenerator buildTestOrderGenerator(final int numberOfTests, final RandomGenerator random) {
         final Mutation<TestOrder> mutation = new ShiftToBeginningMutation(random);
-        final int numTestCases = coverageMatrix.length;
-        return new TestOrderGenerator(random, mutation, numTestCases);
+        return new TestOrderGenerator(random, mutation, numberOfTests);
     }
 
 }
@@ -15,6 +15,7 @@
 
 package de.uni_passau.fim.se2.se.test_prioritisation.utils;
 
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.CoverageMatrix;
 import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
 import org.jacoco.core.analysis.ICounter;
@@ -84,6 +85,11 @@ public class CoverageTracker {
      */
     private final boolean[][] coverageMatrix;
 
+    /**
+     * The bit-packed representation of the coverage matrix. Lazily instantiated and cached.
+     */
+    private CoverageMatrix packedCoverageMatrix;
+
     /**
      * The line numbers in the source code. Lazily instantiated and cached.
      */
@@ -108,6 +114,7 @@ public class CoverageTracker {
         this.testSuiteName = testSuite.getName();
         this.testCases = getTestCases(testSuite);
         this.coverageMatrix = new boolean[testCases.length][];
+        this.packedCoverageMatrix = null;
         this.sourceLineNumbers = null;
         this.cached = false;
     }
@@ -182,20 +189,20 @@ public class CoverageTracker {
     /**
      * Returns line coverage of the CUT as coverage matrix. Hereby, every row in the matrix
      * represents a test case and every column represents a line in the CUT. An entry {@code
-     * matrix[i][j] == true} indicates that test case {@code i} covers line {@code j}.
-     * The matrix is rectangular.
+     * matrix.covers(i, j) == true} indicates that test case {@code i} covers line {@code j}.
      *
      * @return coverage matrix as described above
      * @throws Exception if an error occurred
      */
-    public boolean[][] getCoverageMatrix() throws Exception {
+    public CoverageMatrix getCoverageMatrix() throws Exception {
         if (!cached) {
             measureCoverage();
             assert Utils.isRectangularMatrix(coverageMatrix) : "coverage matrix is not rectangular";
+            packedCoverageMatrix = CoverageMatrix.of(coverageMatrix);
             cached = true;
         }
 
-        return coverageMatrix;
+        return packedCoverageMatrix;
     }
 
 
@@ -1,23 +1,45 @@
 package de.uni_passau.fim.se2.se.test_prioritisation.utils;
 
-import java.util.Random;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
-// This class is a utility class that provides a single source of randomness for the entire application.
+// This class is a utility class that provides the root source of randomness for the entire application.
+// The root is only used by the main thread. Components do not draw from it directly. Instead, the main
+// thread splits off an independent stream for every repetition, and searches split off streams for
+// their islands or replicas before running them, so that streams never need to be synchronised and a
+// fixed seed yields the same streams regardless of how many threads consume them. The threads
+// evaluating fitness values in parallel draw no random numbers at all.
 public class Randomness {
 
-    // Internal source of randomness.
-    private static final Random random = new Random();
+    // The algorithm of all sources of randomness. Its streams are statistically independent when split.
+    private static final RandomGeneratorFactory<SplittableGenerator> FACTORY =
+            RandomGeneratorFactory.of("L64X128MixRandom");
+
+    // Internal root source of randomness.
+    private static SplittableGenerator random = FACTORY.create();
 
     private Randomness() {
         // private constructor to prevent instantiation.
     }
 
     /**
-     * Returns the source of randomness.
+     * Returns the root source of randomness. It must only be used by the main thread, which splits
+     * off independent streams for concurrent consumers, see {@link SplittableGenerator#split()}.
      *
      * @return randomness
      */
-    public static Random random() {
+    public static SplittableGenerator random() {
         return random;
     }
+
+    /**
+     * Replaces the root source of randomness by one with the given seed. All streams split off it
+     * afterwards are determined by the seed. Like the root itself, this must only be used by the
+     * main thread.
+     *
+     * @param seed the seed
+     */
+    public static void setSeed(final long seed) {
+        random = FACTORY.create(seed);
+    }
 }
@@ -0,0 +1,280 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.anytime;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.algorithms.SearchAlgorithm;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions.StoppingCondition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnytimeSearchTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSlowSubscriberReceivesLatestImprovement() {
+        final CountDownLatch received = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AnytimeSearch<Integer> search = anytime(1000, evaluation -> {
+            if (evaluation == 2) {
+                await(received);
+            }
+        });
+        final Recorder recorder = new Recorder(1, improvement -> {
+            if (improvement.solution() == 1) {
+                received.countDown();
+                await(release);
+            }
+        });
+        search.subscribe(recorder);
+
+        assertEquals(1000, (int) search.run());
+        release.countDown();
+        recorder.await();
+
+        // The subscriber was busy while the search improved 999 times, so it only gets the last one.
+        assertEquals(2, recorder.received.size());
+        assertEquals(1, (int) recorder.received.get(0).solution());
+        assertEquals(1000, (int) recorder.received.get(1).solution());
+        assertEquals(1000.0, recorder.received.get(1).fitness());
+        assertEquals(1.0, recorder.received.get(1).progress());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void testLateSubscriberReceivesBestSolution() {
+        final AnytimeSearch<Integer> search = anytime(100, evaluation -> {
+        });
+        assertEquals(100, (int) search.run());
+
+        final Recorder recorder = new Recorder(Long.MAX_VALUE, improvement -> {
+        });
+        search.subscribe(recorder);
+        recorder.await();
+
+        assertEquals(1, recorder.received.size());
+        assertSame(search.best(), recorder.received.get(0));
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void testCancelStopsRunningSearch() {
+        final AnytimeSearch<Integer> search = anytime(Integer.MAX_VALUE, evaluation -> {
+        });
+        final Recorder recorder = new Recorder(1, improvement -> {
+            if (improvement.solution() >= 10) {
+                search.cancel();
+            }
+        });
+        search.subscribe(recorder);
+
+        final int solution = search.run();
+        recorder.await();
+
+        assertTrue(search.isCancelled());
+        assertTrue(solution >= 10);
+        assertEquals(solution, (int) recorder.received.get(recorder.received.size() - 1).solution());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void testCancelBeforeRunSkipsSearch() {
+        final AnytimeSearch<Integer> search = anytime(100, evaluation -> {
+        });
+        final Recorder recorder = new Recorder(Long.MAX_VALUE, improvement -> {
+        });
+        search.subscribe(recorder);
+
+        search.cancel();
+        assertNull(search.run());
+        recorder.await();
+
+        assertTrue(recorder.received.isEmpty());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void testFailedSearchSignalsError() {
+        final IllegalStateException failure = new IllegalStateException("Search failed");
+        final AnytimeSearch<Integer> search = anytime(100, evaluation -> {
+            if (evaluation == 5) {
+                throw failure;
+            }
+        });
+        final Recorder recorder = new Recorder(Long.MAX_VALUE, improvement -> {
+        });
+        search.subscribe(recorder);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, search::run));
+        recorder.await();
+
+        assertSame(failure, recorder.error);
+        assertEquals(4, (int) recorder.received.get(recorder.received.size() - 1).solution());
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    void testInvalidRequestSignalsError() {
+        final AnytimeSearch<Integer> search = anytime(100, evaluation -> {
+        });
+        final Recorder recorder = new Recorder(0, improvement -> {
+        });
+        search.subscribe(recorder);
+        recorder.await();
+
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertEquals(100, (int) search.run());
+        assertTrue(recorder.received.isEmpty());
+    }
+
+    @Test
+    void testCancelledSubscriptionReceivesNoMoreSignals() throws InterruptedException {
+        final AnytimeSearch<Integer> search = anytime(100, evaluation -> {
+        });
+        final Recorder recorder = new Recorder(1, improvement -> {
+        }) {
+            @Override
+            public void onNext(final Improvement<Integer> improvement) {
+                received.add(improvement);
+                subscription.cancel();
+            }
+        };
+        search.subscribe(recorder);
+        assertEquals(100, (int) search.run());
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, recorder.received.size());
+        assertFalse(recorder.completed);
+        assertNull(recorder.error);
+    }
+
+    /**
+     * Creates an anytime search that counts up to the given number of evaluations, improving with
+     * every evaluation.
+     *
+     * @param evaluations      the budget of the search
+     * @param beforeEvaluation called with the number of every evaluation before it takes place
+     * @return the anytime search
+     */
+    private AnytimeSearch<Integer> anytime(final int evaluations, final IntConsumer beforeEvaluation) {
+        return new AnytimeSearch<>(new MaxFitnessEvaluations(evaluations),
+                (stoppingCondition, listener) -> new CountingSearch(stoppingCondition, listener, beforeEvaluation),
+                executor);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "Timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * A search whose solution is the number of evaluations it has performed.
+     */
+    private static final class CountingSearch implements SearchAlgorithm<Integer> {
+
+        private final StoppingCondition stoppingCondition;
+        private final ImprovementListener<Integer> listener;
+        private final IntConsumer beforeEvaluation;
+
+        private CountingSearch(final StoppingCondition stoppingCondition, final ImprovementListener<Integer> listener,
+                               final IntConsumer beforeEvaluation) {
+            this.stoppingCondition = stoppingCondition;
+            this.listener = listener;
+            this.beforeEvaluation = beforeEvaluation;
+        }
+
+        @Override
+        public Integer findSolution() {
+            Integer best = null;
+            notifySearchStarted();
+            for (int evaluation = 1; !searchMustStop(); evaluation++) {
+                beforeEvaluation.accept(evaluation);
+                notifyFitnessEvaluation();
+                best = evaluation;
+                notifyImprovement(evaluation);
+                listener.improved(best, evaluation);
+            }
+            return best;
+        }
+
+        @Override
+        public StoppingCondition getStoppingCondition() {
+            return stoppingCondition;
+        }
+    }
+
+    /**
+     * Records the signals it receives, requesting the given number of improvements at first and
+     * one more after every improvement.
+     */
+    private static class Recorder implements Flow.Subscriber<Improvement<Integer>> {
+
+        final List<Improvement<Integer>> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final long initialRequest;
+        final Consumer<Improvement<Integer>> onReceived;
+        volatile Flow.Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        Recorder(final long initialRequest, final Consumer<Improvement<Integer>> onReceived) {
+            this.initialRequest = initialRequest;
+            this.onReceived = onReceived;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(final Improvement<Integer> improvement) {
+            received.add(improvement);
+            onReceived.accept(improvement);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+
+        void await() {
+            AnytimeSearchTest.await(done);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class APLCEvaluatorTest {
+
+    private static final int MATRICES = 30;
+    private static final int EVALUATIONS = 300;
+
+    @Test
+    void testScalarKernelMatchesNaiveEvaluation() {
+        final Random random = new Random(1);
+        for (int i = 0; i < MATRICES; i++) {
+            assertMatchesNaiveEvaluation(random, denseMatrix(random), ScalarCoverageKernel::new);
+            assertMatchesNaiveEvaluation(random, sparseMatrix(random), ScalarCoverageKernel::new);
+            assertMatchesNaiveEvaluation(random, wideMatrix(random), ScalarCoverageKernel::new);
+        }
+    }
+
+    @Test
+    void testSparseKernelMatchesNaiveEvaluation() {
+        final Random random = new Random(2);
+        for (int i = 0; i < MATRICES; i++) {
+            assertMatchesNaiveEvaluation(random, denseMatrix(random), APLCEvaluatorTest::sparseKernel);
+            assertMatchesNaiveEvaluation(random, sparseMatrix(random), APLCEvaluatorTest::sparseKernel);
+        }
+    }
+
+    /**
+     * The vectorised kernel is what the {@code aplc.vector} property switches off in favour of
+     * the scalar one, so both are compared with the naive evaluation on the same wide rows.
+     */
+    @Test
+    void testVectorKernelMatchesNaiveEvaluation() {
+        final Function<CoverageMatrix, CoverageKernel> vectorKernel = vectorKernel();
+        if (vectorKernel == null) {
+            return;
+        }
+        final Random random = new Random(3);
+        for (int i = 0; i < MATRICES; i++) {
+            assertMatchesNaiveEvaluation(random, wideMatrix(random), vectorKernel);
+        }
+    }
+
+    @Test
+    void testKernelChosenForDensityMatchesNaiveEvaluation() {
+        final Random random = new Random(4);
+        for (int i = 0; i < MATRICES; i++) {
+            for (final boolean[][] matrix : new boolean[][][]{denseMatrix(random), sparseMatrix(random)}) {
+                assertMatchesNaiveEvaluation(random, matrix, merged ->
+                        CoverageKernel.factoryFor(merged, CoverageKernel.sparseRowsFor(merged)).get());
+            }
+        }
+    }
+
+    @Test
+    void testGenerationOverflowResetsStamps() throws ReflectiveOperationException {
+        final Random random = new Random(5);
+        final Field generation = APLCEvaluator.class.getDeclaredField("generation");
+        generation.setAccessible(true);
+        for (int i = 0; i < MATRICES; i++) {
+            final boolean[][] matrix = random.nextBoolean() ? denseMatrix(random) : sparseMatrix(random);
+            final CoverageMatrix merged = CoverageMatrix.of(matrix).mergeIdenticalLines();
+            final APLCEvaluator evaluator = evaluator(merged, ScalarCoverageKernel::new);
+
+            int[] order = NaiveAPLC.randomOrder(random, matrix.length);
+            assertEquals(NaiveAPLC.sum(matrix, order), evaluator.sumOfFirstCovers(order));
+            generation.setInt(evaluator, Integer.MAX_VALUE - 2);
+
+            // The overflow strikes in the middle of a chain of shifted orders.
+            for (int j = 0; j < 6; j++) {
+                order = shifted(order, random.nextInt(order.length));
+                assertEquals(NaiveAPLC.sum(matrix, order), evaluator.sumOfFirstCovers(order));
+                assertTrue(generation.getInt(evaluator) > 0);
+            }
+        }
+    }
+
+    /**
+     * Evaluates a sequence of test orders and compares every sum with the naive one. Most orders
+     * shift a test of the most recent order to the beginning, which forms chains of neighbours;
+     * others do so for the order before it, as when a local search rejects a neighbour. Some
+     * orders repeat the most recent one, and some are unrelated to all previous ones.
+     *
+     * @param random the source of randomness
+     * @param matrix the coverage matrix
+     * @param kernel creates the kernel for the merged coverage matrix
+     */
+    private static void assertMatchesNaiveEvaluation(final Random random, final boolean[][] matrix,
+                                                     final Function<CoverageMatrix, CoverageKernel> kernel) {
+        final CoverageMatrix merged = CoverageMatrix.of(matrix).mergeIdenticalLines();
+        final APLCEvaluator evaluator = evaluator(merged, kernel);
+        final int tests = matrix.length;
+
+        int[] parent = NaiveAPLC.randomOrder(random, tests);
+        int[] current = parent;
+        assertEquals(NaiveAPLC.sum(matrix, current), evaluator.sumOfFirstCovers(current));
+        for (int i = 0; i < EVALUATIONS; i++) {
+            final int choice = random.nextInt(20);
+            if (choice < 12) {
+                parent = current;
+                current = shifted(current, random.nextInt(tests));
+            } else if (choice < 16) {
+                current = shifted(parent, random.nextInt(tests));
+            } else if (choice < 18) {
+                current = current.clone();
+            } else {
+                parent = current;
+                current = NaiveAPLC.randomOrder(random, tests);
+            }
+            assertEquals(NaiveAPLC.sum(matrix, current), evaluator.sumOfFirstCovers(current));
+        }
+    }
+
+    /**
+     * Returns a small matrix whose density lies well above the threshold of the sparse kernel.
+     */
+    private static boolean[][] denseMatrix(final Random random) {
+        return NaiveAPLC.randomMatrix(random, 2 + random.nextInt(40), 1 + random.nextInt(300), 0.2);
+    }
+
+    /**
+     * Returns a matrix whose density lies below the threshold of the sparse kernel, even after
+     * merging identical lines.
+     */
+    private static boolean[][] sparseMatrix(final Random random) {
+        final boolean[][] matrix = NaiveAPLC.randomMatrix(random, 100 + random.nextInt(100), 1 + random.nextInt(300),
+                0.004);
+        assertTrue(CoverageKernel.sparseRowsFor(CoverageMatrix.of(matrix).mergeIdenticalLines()) != null);
+        return matrix;
+    }
+
+    /**
+     * Returns a dense matrix with rows of at least eight words after merging identical lines, which
+     * is enough for full vectors and a remainder.
+     */
+    private static boolean[][] wideMatrix(final Random random) {
+        final int distinct = 8 * CoverageMatrix.LINES_PER_WORD + 100 + random.nextInt(600);
+        final boolean[][] matrix = NaiveAPLC.randomMatrix(random, 30 + random.nextInt(20), distinct,
+                distinct + random.nextInt(300), 0.25);
+        assertTrue(CoverageMatrix.of(matrix).mergeIdenticalLines().wordsPerRow() >= 8);
+        return matrix;
+    }
+
+    private static APLCEvaluator evaluator(final CoverageMatrix merged,
+                                           final Function<CoverageMatrix, CoverageKernel> kernel) {
+        final long[] words = merged.words();
+        final int wordsPerRow = merged.wordsPerRow();
+        final long[] coverableLines = new long[wordsPerRow];
+        for (int offset = 0; offset < words.length; offset += wordsPerRow) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                coverableLines[w] |= words[offset + w];
+            }
+        }
+        return new APLCEvaluator(merged, coverableLines, kernel.apply(merged));
+    }
+
+    private static CoverageKernel sparseKernel(final CoverageMatrix merged) {
+        return new SparseCoverageKernel(merged, SparseRows.of(merged));
+    }
+
+    /**
+     * Looks up the vectorised kernel reflectively, as {@link CoverageKernel} does, so that this
+     * test also loads without the Vector API.
+     *
+     * @return the constructor of the kernel, or {@code null} if the Vector API is unavailable
+     */
+    private static Function<CoverageMatrix, CoverageKernel> vectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            final Constructor<? extends CoverageKernel> constructor =
+                    Class.forName(CoverageKernel.class.getPackageName() + ".VectorCoverageKernel")
+                            .asSubclass(CoverageKernel.class)
+                            .getDeclaredConstructor(CoverageMatrix.class);
+            return merged -> {
+                try {
+                    return constructor.newInstance(merged);
+                } catch (ReflectiveOperationException e) {
+                    throw new AssertionError(e);
+                }
+            };
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Returns the test order obtained by shifting the test at the given index to the beginning.
+     */
+    private static int[] shifted(final int[] order, final int index) {
+        final int[] shifted = order.clone();
+        System.arraycopy(order, 0, shifted, 1, index);
+        shifted[0] = order[index];
+        return shifted;
+    }
+}
@@ -0,0 +1,160 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions.APLCNeighbourhood.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class APLCNeighbourhoodTest {
+
+    private static final int MATRICES = 300;
+    private static final int STEPS = 50;
+
+    @Test
+    void testScannedDeltasMatchNaiveEvaluation() {
+        final Random random = new Random(1);
+        for (int i = 0; i < MATRICES; i++) {
+            final boolean[][] matrix = randomMatrix(random);
+            final int[] order = NaiveAPLC.randomOrder(random, matrix.length);
+            final APLCNeighbourhood neighbourhood = new APLC(matrix).neighbourhood();
+            neighbourhood.reset(order);
+
+            assertEquals(NaiveAPLC.sum(matrix, order), neighbourhood.sum());
+            assertScansMatchNaiveEvaluation(matrix, order, neighbourhood);
+        }
+    }
+
+    @Test
+    void testAppliedMovesKeepNeighbourhoodInStep() {
+        final Random random = new Random(2);
+        for (int i = 0; i < MATRICES / 10; i++) {
+            final boolean[][] matrix = randomMatrix(random);
+            final int tests = matrix.length;
+            int[] order = NaiveAPLC.randomOrder(random, tests);
+            final APLCNeighbourhood neighbourhood = new APLC(matrix).neighbourhood();
+            neighbourhood.reset(order);
+
+            for (int step = 0; step < STEPS && tests > 1; step++) {
+                final Move move = random.nextBoolean() ? Move.INSERTION : Move.SWAP;
+                final int from = random.nextInt(tests);
+                final int to = (from + 1 + random.nextInt(tests - 1)) % tests;
+                // A scan in between must leave no trace in the scratch buffers.
+                neighbourhood.scan(random.nextInt(tests), (m, f, t, delta) -> true);
+                neighbourhood.apply(move, from, to);
+                order = moved(order, move, from, to);
+
+                assertArrayEquals(order, neighbourhood.order());
+                assertEquals(NaiveAPLC.sum(matrix, order), neighbourhood.sum());
+                assertEquals(NaiveAPLC.aplc(matrix, order), neighbourhood.fitness());
+                assertEquals(NaiveAPLC.prefix(matrix, order), neighbourhood.prefix());
+            }
+            assertScansMatchNaiveEvaluation(matrix, order, neighbourhood);
+        }
+    }
+
+    @Test
+    void testScanStopsWhenConsumerDeclines() {
+        final boolean[][] matrix = {
+                {true, false, false},
+                {false, true, false},
+                {false, false, true}
+        };
+        final APLCNeighbourhood neighbourhood = new APLC(matrix).neighbourhood();
+        neighbourhood.reset(new int[]{0, 1, 2});
+
+        final int[] received = new int[1];
+        assertFalse(neighbourhood.scan(0, (move, from, to, delta) -> ++received[0] < 1));
+        assertEquals(1, received[0]);
+        assertTrue(neighbourhood.scan(0, (move, from, to, delta) -> true));
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        final APLCNeighbourhood neighbourhood = new APLC(new boolean[][]{{true}, {false}}).neighbourhood();
+        assertThrows(IllegalArgumentException.class, () -> neighbourhood.reset(null));
+        assertThrows(IllegalArgumentException.class, () -> neighbourhood.reset(new int[]{0}));
+
+        neighbourhood.reset(new int[]{1, 0});
+        assertThrows(IndexOutOfBoundsException.class, () -> neighbourhood.scan(2, (move, from, to, delta) -> true));
+        assertThrows(IndexOutOfBoundsException.class, () -> neighbourhood.apply(Move.SWAP, 0, 2));
+    }
+
+    /**
+     * Returns a small random coverage matrix with merged lines, either sparse or dense.
+     */
+    private static boolean[][] randomMatrix(final Random random) {
+        final double density = random.nextBoolean() ? 0.05 : 0.4;
+        return NaiveAPLC.randomMatrix(random, 1 + random.nextInt(24), 1 + random.nextInt(160), density);
+    }
+
+    /**
+     * Scans the moves of every test and compares their deltas with the change of the naively
+     * computed sum. Moves that are not enumerated must not change the sum, except for insertions
+     * behind the last enumerated one, which have the same effect as that one.
+     */
+    private static void assertScansMatchNaiveEvaluation(final boolean[][] matrix, final int[] order,
+                                                        final APLCNeighbourhood neighbourhood) {
+        final long sum = NaiveAPLC.sum(matrix, order);
+        for (int from = 0; from < order.length; from++) {
+            final Map<Integer, Long> insertions = new HashMap<>();
+            final Map<Integer, Long> swaps = new HashMap<>();
+            final int scanned = from;
+            // The stage of the scan, 0 to 2, and the last target in it, which must only increase.
+            final int[] last = {0, -1};
+            assertTrue(neighbourhood.scan(from, (move, f, to, delta) -> {
+                assertEquals(scanned, f);
+                final int stage = move == Move.SWAP ? 2 : to < f ? 0 : 1;
+                assertTrue(stage > last[0] || stage == last[0] && to > last[1], "Moves out of order");
+                last[0] = stage;
+                last[1] = to;
+                assertNull((move == Move.SWAP ? swaps : insertions).put(to, delta), "Move enumerated twice");
+                assertEquals(NaiveAPLC.sum(matrix, moved(order, move, f, to)) - sum, delta,
+                        move + " from " + f + " to " + to);
+                return true;
+            }));
+
+            long behind = 0;
+            for (int to = 0; to < order.length; to++) {
+                if (to == from) {
+                    continue;
+                }
+                final long insertion = NaiveAPLC.sum(matrix, moved(order, Move.INSERTION, from, to)) - sum;
+                if (insertions.containsKey(to)) {
+                    behind = to > from ? insertion : behind;
+                } else {
+                    assertEquals(to > from ? behind : 0, insertion, "Missed insertion from " + from + " to " + to);
+                }
+                if (to > from && !swaps.containsKey(to)) {
+                    assertEquals(0, NaiveAPLC.sum(matrix, moved(order, Move.SWAP, from, to)) - sum,
+                            "Missed swap of " + from + " and " + to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the test order resulting from the given move.
+     */
+    private static int[] moved(final int[] order, final Move move, final int from, final int to) {
+        final int[] moved = order.clone();
+        final int test = moved[from];
+        if (move == Move.SWAP) {
+            moved[from] = moved[to];
+        } else if (from < to) {
+            System.arraycopy(order, from + 1, moved, from, to - from);
+        } else {
+            System.arraycopy(order, to, moved, to + 1, from - to);
+        }
+        moved[to] = test;
+        return moved;
+    }
+}
@@ -0,0 +1,104 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import de.uni_passau.fim.se2.se.test_prioritisation.encodings.TestOrder;
+import de.uni_passau.fim.se2.se.test_prioritisation.mutations.ShiftToBeginningMutation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class APLCTest {
+
+    private static final int MATRICES = 40;
+
+    @Test
+    void testBatchesMatchSingleEvaluationsOnDenseMatrices() {
+        assertBatchesMatchSingleEvaluations(new Random(1), 0.3, false);
+    }
+
+    @Test
+    void testBatchesMatchSingleEvaluationsOnSparseMatrices() {
+        assertBatchesMatchSingleEvaluations(new Random(2), 0.004, true);
+    }
+
+    /**
+     * Evaluates populations sharing prefixes of various lengths as a batch, once with a single
+     * thread and once split into chunks across several threads, and compares every fitness value
+     * with the single evaluation of its test order and with the naive APLC.
+     *
+     * @param random  the source of randomness
+     * @param density the probability of a test covering a line
+     * @param sparse  whether the matrices must be sparse enough for the sparse kernel
+     */
+    private static void assertBatchesMatchSingleEvaluations(final Random random, final double density,
+                                                            final boolean sparse) {
+        final ForkJoinPool single = new ForkJoinPool(1);
+        final ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < MATRICES; i++) {
+                // Sparse matrices need many tests, as merging identical lines makes them denser.
+                final int tests = sparse ? 100 + random.nextInt(200) : 8 + random.nextInt(60);
+                final boolean[][] matrix = NaiveAPLC.randomMatrix(random, tests, 8 + random.nextInt(200), density);
+                final CoverageMatrix coverageMatrix = CoverageMatrix.of(matrix);
+                assertEquals(sparse, CoverageKernel.sparseRowsFor(coverageMatrix.mergeIdenticalLines()) != null);
+
+                final List<TestOrder> population = population(random, tests);
+                for (final ForkJoinPool pool : List.of(single, parallel)) {
+                    final APLC aplc = new APLC(coverageMatrix, pool);
+                    final double[] fitness = aplc.applyAsDoubleAll(population);
+
+                    assertEquals(population.size(), fitness.length);
+                    for (int j = 0; j < population.size(); j++) {
+                        final TestOrder testOrder = population.get(j);
+                        assertEquals(aplc.applyAsDouble(testOrder), fitness[j]);
+                        assertEquals(NaiveAPLC.aplc(matrix, testOrder.getPositions()), fitness[j]);
+                    }
+                }
+            }
+        } finally {
+            single.shutdownNow();
+            parallel.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a population of test orders derived from a few ancestors by shuffling the tests
+     * behind a random cut, most of them late, so that they share prefixes of all lengths. Some
+     * test orders occur several times.
+     *
+     * @param random the source of randomness
+     * @param tests  the number of tests
+     * @return the population
+     */
+    private static List<TestOrder> population(final Random random, final int tests) {
+        final ShiftToBeginningMutation mutation = new ShiftToBeginningMutation(random);
+        final List<int[]> ancestors = new ArrayList<>();
+        final int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            ancestors.add(NaiveAPLC.randomOrder(random, tests));
+        }
+
+        final List<TestOrder> population = new ArrayList<>();
+        final int size = 1 + random.nextInt(120);
+        for (int i = 0; i < size; i++) {
+            if (!population.isEmpty() && random.nextInt(10) == 0) {
+                population.add(population.get(random.nextInt(population.size())));
+                continue;
+            }
+            final int[] order = ancestors.get(random.nextInt(ancestors.size())).clone();
+            final int cut = random.nextInt(4) == 0 ? random.nextInt(tests) : tests / 2 + random.nextInt(tests - tests / 2);
+            for (int j = tests - 1; j > cut; j--) {
+                final int k = cut + random.nextInt(j - cut + 1);
+                final int test = order[j];
+                order[j] = order[k];
+                order[k] = test;
+            }
+            population.add(new TestOrder(mutation, order));
+        }
+        return population;
+    }
+}
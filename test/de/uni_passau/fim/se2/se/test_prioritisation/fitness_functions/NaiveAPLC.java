@@ -0,0 +1,130 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.fitness_functions;
+
+import java.util.Random;
+
+/**
+ * Computes the APLC straight from its definition on a plain coverage matrix, as a reference for
+ * the optimised evaluations.
+ */
+final class NaiveAPLC {
+
+    private NaiveAPLC() {
+    }
+
+    /**
+     * Returns the sum of the 1-based positions at which every line is covered first, counting
+     * {@code n + 1} for lines not covered at all.
+     *
+     * @param matrix the coverage matrix
+     * @param order  the test order
+     * @return the sum of the first-covering positions
+     */
+    static long sum(final boolean[][] matrix, final int[] order) {
+        final int lines = matrix[0].length;
+        long sum = 0;
+        for (int line = 0; line < lines; line++) {
+            int position = order.length + 1;
+            for (int i = 0; i < order.length; i++) {
+                if (matrix[order[i]][line]) {
+                    position = i + 1;
+                    break;
+                }
+            }
+            sum += position;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the APLC of the given test order.
+     *
+     * @param matrix the coverage matrix
+     * @param order  the test order
+     * @return the APLC
+     */
+    static double aplc(final boolean[][] matrix, final int[] order) {
+        final int n = order.length;
+        final int m = matrix[0].length;
+        return 1.0 - ((double) sum(matrix, order) / ((double) n * m)) + (1.0 / (2 * n));
+    }
+
+    /**
+     * Returns the length of the shortest prefix of the given test order that covers every line
+     * covered by any test.
+     *
+     * @param matrix the coverage matrix
+     * @param order  the test order
+     * @return the length of the prefix
+     */
+    static int prefix(final boolean[][] matrix, final int[] order) {
+        int prefix = 0;
+        for (int line = 0; line < matrix[0].length; line++) {
+            for (int i = 0; i < order.length; i++) {
+                if (matrix[order[i]][line]) {
+                    prefix = Math.max(prefix, i + 1);
+                    break;
+                }
+            }
+        }
+        return prefix;
+    }
+
+    /**
+     * Returns a random coverage matrix, most of whose lines are copies of others, so that merging
+     * identical lines yields weighted columns.
+     *
+     * @param random  the source of randomness
+     * @param tests   the number of tests
+     * @param lines   the number of lines
+     * @param density the probability of a test covering a line
+     * @return the coverage matrix
+     */
+    static boolean[][] randomMatrix(final Random random, final int tests, final int lines, final double density) {
+        return randomMatrix(random, tests, 1 + random.nextInt(lines), lines, density);
+    }
+
+    /**
+     * Returns a random coverage matrix whose first lines are drawn at random and whose remaining
+     * lines are copies of them.
+     *
+     * @param random   the source of randomness
+     * @param tests    the number of tests
+     * @param distinct the number of lines drawn at random, which may still happen to be identical
+     * @param lines    the number of lines
+     * @param density  the probability of a test covering a line
+     * @return the coverage matrix
+     */
+    static boolean[][] randomMatrix(final Random random, final int tests, final int distinct, final int lines,
+                                    final double density) {
+        final boolean[][] matrix = new boolean[tests][lines];
+        for (int line = 0; line < distinct; line++) {
+            for (int test = 0; test < tests; test++) {
+                matrix[test][line] = random.nextDouble() < density;
+            }
+        }
+        for (int line = distinct; line < lines; line++) {
+            final int copied = random.nextInt(distinct);
+            for (int test = 0; test < tests; test++) {
+                matrix[test][line] = matrix[test][copied];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns a random permutation of the given number of tests.
+     *
+     * @param random the source of randomness
+     * @param tests  the number of tests
+     * @return the test order
+     */
+    static int[] randomOrder(final Random random, final int tests) {
+        final int[] order = new int[tests];
+        for (int i = 0; i < tests; i++) {
+            final int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return order;
+    }
+}
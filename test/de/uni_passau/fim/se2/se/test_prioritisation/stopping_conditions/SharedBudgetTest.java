@@ -0,0 +1,167 @@
+package de.uni_passau.fim.se2.se.test_prioritisation.stopping_conditions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedBudgetTest {
+
+    private static final int BUDGET = 100_000;
+    private static final int SLACK = 64;
+    private static final int SEARCHES = 8;
+
+    @Test
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SharedBudget(0, SLACK));
+        assertThrows(IllegalArgumentException.class, () -> new SharedBudget(BUDGET, 0));
+    }
+
+    @Test
+    void testConcurrentSearchesCheckingFirstExhaustBudgetExactly() throws Exception {
+        final SharedBudget budget = new SharedBudget(BUDGET, SLACK);
+        final AtomicLong evaluations = new AtomicLong();
+
+        final List<StoppingCondition> conditions = runConcurrently(budget, condition -> {
+            condition.notifySearchStarted();
+            while (!condition.searchMustStop()) {
+                evaluations.incrementAndGet();
+                condition.notifyFitnessEvaluation();
+            }
+        });
+
+        assertEquals(BUDGET, evaluations.get());
+        assertEquals(BUDGET, budget.reservedEvaluations());
+        assertEquals(0, budget.overdraft());
+        for (final StoppingCondition condition : conditions) {
+            assertEquals(1.0, condition.getProgress());
+        }
+    }
+
+    @Test
+    void testConcurrentSearchesCheckingAfterwardsStayWithinSlack() throws Exception {
+        final SharedBudget budget = new SharedBudget(BUDGET, SLACK);
+        final AtomicLong evaluations = new AtomicLong();
+
+        final List<StoppingCondition> conditions = runConcurrently(budget, condition -> {
+            condition.notifySearchStarted();
+            do {
+                evaluations.incrementAndGet();
+                condition.notifyFitnessEvaluation();
+            } while (!condition.searchMustStop());
+        });
+
+        // Every search overdraws by its last evaluation at most, which is charged to the overdraft.
+        assertEquals(BUDGET, budget.reservedEvaluations());
+        assertEquals(BUDGET + budget.overdraft(), evaluations.get());
+        assertTrue(budget.overdraft() <= SEARCHES, "Budget overshot: " + evaluations.get());
+        for (final StoppingCondition condition : conditions) {
+            assertEquals(1.0, condition.getProgress());
+        }
+    }
+
+    @Test
+    void testEvaluationsWithoutCheckingAreCharged() {
+        final SharedBudget budget = new SharedBudget(BUDGET, SLACK);
+        final StoppingCondition condition = budget.newCondition();
+        condition.notifySearchStarted();
+
+        for (int i = 0; i < BUDGET / 2; i++) {
+            condition.notifyFitnessEvaluation();
+        }
+        assertEquals(0.5, condition.getProgress());
+
+        // A new condition reserves its first evaluations right away, so they are kept from the others.
+        final StoppingCondition other = budget.newCondition();
+        for (int i = BUDGET / 2; i < BUDGET; i++) {
+            condition.notifyFitnessEvaluation();
+        }
+        // The evaluations beyond the budget are charged, so only the evaluations reserved before are left.
+        assertEquals(BUDGET, budget.reservedEvaluations());
+        assertEquals(SLACK, budget.overdraft());
+        assertEquals(1.0, condition.getProgress());
+        assertTrue(condition.searchMustStop());
+        for (int i = 0; i < SLACK; i++) {
+            assertFalse(other.searchMustStop());
+            other.notifyFitnessEvaluation();
+        }
+        assertEquals(1.0, other.getProgress());
+        assertTrue(other.searchMustStop());
+
+        // Overdrawing by more than the slack is rejected, so the budget is never overshot by more.
+        assertThrows(IllegalStateException.class, condition::notifyFitnessEvaluation);
+        assertEquals(SLACK, budget.overdraft());
+        other.notifyFitnessEvaluation();
+        assertEquals(SLACK + 1, budget.overdraft());
+    }
+
+    @Test
+    void testConditionsCreatedUpFrontGetTheirShare() {
+        final SharedBudget budget = new SharedBudget((long) SEARCHES * SLACK, SLACK);
+        final List<StoppingCondition> conditions = new ArrayList<>();
+        for (int i = 0; i < SEARCHES; i++) {
+            conditions.add(budget.newCondition());
+        }
+
+        // The conditions run one after another, yet the first one cannot take the whole budget.
+        for (final StoppingCondition condition : conditions) {
+            int evaluations = 0;
+            condition.notifySearchStarted();
+            while (!condition.searchMustStop()) {
+                condition.notifyFitnessEvaluation();
+                evaluations++;
+            }
+            assertEquals(SLACK, evaluations);
+        }
+        assertEquals(0, budget.overdraft());
+    }
+
+    /**
+     * Runs the given search loop on every condition of a shared budget, each in a thread of its
+     * own, starting them all at once.
+     *
+     * @param budget the shared budget
+     * @param search the search loop
+     * @return the conditions of the searches
+     */
+    private static List<StoppingCondition> runConcurrently(final SharedBudget budget, final Search search)
+            throws Exception {
+        final List<StoppingCondition> conditions = new ArrayList<>();
+        final List<Future<?>> futures = new ArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(SEARCHES);
+        try {
+            for (int i = 0; i < SEARCHES; i++) {
+                final StoppingCondition condition = budget.newCondition();
+                conditions.add(condition);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    search.run(condition);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return conditions;
+    }
+
+    @FunctionalInterface
+    private interface Search {
+        void run(StoppingCondition condition);
+    }
+}